@@ -0,0 +1,85 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactFilter;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+
+import org.apache.maven.RepositoryUtils;
+import org.apache.maven.index.ArtifactInfo;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks the per-artifact work on {@link ArtifactInfo}s: filtering (as done by {@link ArtifactTask}), creating
+ * {@link ArtifactInfoCoordinates} and building fully qualified names.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArtifactInfoBenchmark {
+
+    private static final int ARTIFACTS = 10000;
+
+    private List<ArtifactInfo> artifactInfos;
+
+    private List<Coordinates> coordinates;
+
+    private ArtifactFilter artifactFilter;
+
+    private CoordinatePool coordinatePool;
+
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        artifactInfos = BenchmarkFixtures.artifactInfos(ARTIFACTS);
+        artifactFilter = new ArtifactFilter("org.jqassistant.benchmark.*:*:jar", "*:*:*:javadoc:*");
+        coordinatePool = new CoordinatePool();
+        coordinates = new ArrayList<>(ARTIFACTS);
+        for (ArtifactInfo artifactInfo : artifactInfos) {
+            coordinates.add(new ArtifactInfoCoordinates(artifactInfo, coordinatePool));
+        }
+    }
+
+    @Benchmark
+    public boolean filter() {
+        ArtifactInfo artifactInfo = artifactInfos.get(next());
+        return artifactFilter.match(RepositoryUtils.toArtifact(
+            new DefaultArtifact(artifactInfo.getGroupId(), artifactInfo.getArtifactId(), artifactInfo.getClassifier(), artifactInfo.getPackaging(),
+                artifactInfo.getVersion())));
+    }
+
+    @Benchmark
+    public DefaultArtifact defaultArtifact() {
+        ArtifactInfo artifactInfo = artifactInfos.get(next());
+        return new DefaultArtifact(artifactInfo.getGroupId(), artifactInfo.getArtifactId(), artifactInfo.getClassifier(),
+            artifactInfo.getFileExtension(), artifactInfo.getVersion());
+    }
+
+    @Benchmark
+    public Coordinates artifactInfoCoordinates() {
+        return new ArtifactInfoCoordinates(artifactInfos.get(next()), coordinatePool);
+    }
+
+    @Benchmark
+    public String fullQualifiedName() {
+        return MavenArtifactHelper.getId(coordinates.get(next()));
+    }
+
+    @Benchmark
+    public String pooledFullQualifiedName() {
+        return coordinatePool.getId(coordinates.get(next()));
+    }
+
+    private int next() {
+        cursor = cursor + 1 < ARTIFACTS ? cursor + 1 : 0;
+        return cursor;
+    }
+}
@@ -0,0 +1,67 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.index.ArtifactInfo;
+
+/**
+ * Provides the fixtures shared by the benchmarks.
+ */
+final class BenchmarkFixtures {
+
+    private static final String[] CLASSIFIERS = { null, "sources", "javadoc" };
+
+    private static final String[] EXTENSIONS = { "jar", "jar", "jar" };
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Generates {@link ArtifactInfo}s resembling a Maven repository, i.e. groups containing several artifacts in several versions, each
+     * with sources and javadoc.
+     *
+     * @param count
+     *     The number of {@link ArtifactInfo}s.
+     * @return The {@link ArtifactInfo}s.
+     */
+    static List<ArtifactInfo> artifactInfos(int count) {
+        List<ArtifactInfo> artifactInfos = new ArrayList<>(count);
+        for (int i = 0; artifactInfos.size() < count; i++) {
+            String groupId = "org.jqassistant.benchmark.group" + (i / 100);
+            String artifactId = "artifact" + (i / 10 % 10);
+            String version = "1." + (i % 10) + ".0" + (i % 7 == 0 ? "-SNAPSHOT" : "");
+            for (int c = 0; c < CLASSIFIERS.length && artifactInfos.size() < count; c++) {
+                ArtifactInfo artifactInfo = new ArtifactInfo(null, groupId, artifactId, version, CLASSIFIERS[c], EXTENSIONS[c]);
+                artifactInfo.setPackaging("jar");
+                artifactInfo.setLastModified(1_700_000_000_000L + i);
+                artifactInfo.setSize(1024L * (i % 512 + 1));
+                artifactInfo.setSha1(String.format("%040x", i * CLASSIFIERS.length + c));
+                artifactInfos.add(artifactInfo);
+            }
+        }
+        return artifactInfos;
+    }
+
+    /**
+     * Return the file of a checked-in fixture.
+     *
+     * @param name
+     *     The name of the fixture relative to the class path root.
+     * @return The file.
+     */
+    static File resource(String name) {
+        URL url = BenchmarkFixtures.class.getResource("/" + name);
+        if (url == null) {
+            throw new IllegalStateException("Cannot find fixture " + name);
+        }
+        try {
+            return new File(url.toURI());
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Cannot convert URL of fixture " + url, e);
+        }
+    }
+}
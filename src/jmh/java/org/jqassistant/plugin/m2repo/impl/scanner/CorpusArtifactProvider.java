@@ -0,0 +1,41 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Resolves artifacts from the POM corpus using the default repository layout.
+ */
+final class CorpusArtifactProvider implements ArtifactProvider {
+
+    private final File repositoryRoot;
+
+    CorpusArtifactProvider(File repositoryRoot) {
+        this.repositoryRoot = repositoryRoot;
+    }
+
+    @Override
+    public ArtifactResult getArtifact(Artifact artifact) throws ArtifactResolutionException {
+        ArtifactResult artifactResult = new ArtifactResult(new ArtifactRequest(artifact, null, null));
+        File file = new File(repositoryRoot,
+            artifact.getGroupId()
+                .replace('.', '/') + "/" + artifact.getArtifactId() + "/" + artifact.getVersion() + "/" + artifact.getArtifactId() + "-"
+                + artifact.getVersion() + "." + artifact.getExtension());
+        if (!file.exists()) {
+            throw new ArtifactResolutionException(singletonList(artifactResult));
+        }
+        return artifactResult.setArtifact(artifact.setFile(file));
+    }
+
+    @Override
+    public File getRepositoryRoot() {
+        return repositoryRoot;
+    }
+}
@@ -0,0 +1,101 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.common.api.model.DependsOnDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the write rate of <code>DEPENDS_ON</code> relations created by the {@link DependencyWriter} with creating each relation through
+ * the {@link Store} as before, measured in relations per second against the graph store of the integration tests.
+ * <p>
+ * The created relations are deleted after each iteration, i.e. all iterations start with the same graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DependencyWriterBenchmark {
+
+    private static final int ARTIFACTS = 1000;
+
+    private static final int RELATIONS = 1000;
+
+    private static final String[] SCOPES = { "compile", "provided", "runtime", "test" };
+
+    private GraphStoreFixture fixture;
+
+    private Store store;
+
+    private List<MavenArtifactDescriptor> artifacts;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUpStore() {
+        fixture = new GraphStoreFixture();
+        store = fixture.start();
+        store.beginTransaction();
+        artifacts = new ArrayList<>(ARTIFACTS);
+        for (int i = 0; i < ARTIFACTS; i++) {
+            MavenArtifactDescriptor artifact = store.create(MavenArtifactDescriptor.class);
+            artifact.setFullQualifiedName("org.jqassistant.benchmark:artifact" + i + ":jar:1.0.0");
+            artifacts.add(artifact);
+        }
+        store.commitTransaction();
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteRelations() {
+        store.beginTransaction();
+        store.executeQuery("MATCH ()-[dependsOn:DEPENDS_ON]->() DELETE dependsOn RETURN count(*) AS relations")
+            .getSingleResult();
+        store.commitTransaction();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownStore() {
+        fixture.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RELATIONS)
+    public void dependencyWriter() {
+        store.beginTransaction();
+        DependencyWriter dependencyWriter = new DependencyWriter(store);
+        for (int i = 0; i < RELATIONS; i++) {
+            int relation = cursor++;
+            dependencyWriter.add(dependent(relation), dependency(relation), SCOPES[relation % SCOPES.length], relation % 3 == 0);
+        }
+        dependencyWriter.flush();
+        store.commitTransaction();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RELATIONS)
+    public void storeCreate() {
+        store.beginTransaction();
+        for (int i = 0; i < RELATIONS; i++) {
+            int relation = cursor++;
+            DependsOnDescriptor dependsOnDescriptor = store.create(dependent(relation), DependsOnDescriptor.class, dependency(relation));
+            dependsOnDescriptor.setScope(SCOPES[relation % SCOPES.length]);
+            dependsOnDescriptor.setOptional(relation % 3 == 0);
+        }
+        store.commitTransaction();
+    }
+
+    private MavenArtifactDescriptor dependent(int relation) {
+        return artifacts.get(Math.floorMod(relation, ARTIFACTS));
+    }
+
+    private MavenArtifactDescriptor dependency(int relation) {
+        return artifacts.get(Math.floorMod(relation * 7 + 1, ARTIFACTS));
+    }
+}
@@ -0,0 +1,54 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks {@link EffectiveModelBuilder#getModel(File)} on the checked-in POM corpus (parent hierarchy of up to three levels, imported
+ * BOM, interpolated coordinates and activated profiles), with and without the shared model cache.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EffectiveModelBuilderBenchmark {
+
+    private static final String CORPUS = "pom-corpus";
+
+    private static final String GROUP_PATH = "org/jqassistant/benchmark/";
+
+    private static final List<String> POMS = Arrays.asList("benchmark-api/1.0.0/benchmark-api-1.0.0.pom",
+        "benchmark-core/1.0.0/benchmark-core-1.0.0.pom", "benchmark-app/1.0.0/benchmark-app-1.0.0.pom");
+
+    @Param({ "0", "512" })
+    public long modelCacheSize;
+
+    private File[] pomFiles;
+
+    private EffectiveModelBuilder effectiveModelBuilder;
+
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        File repositoryRoot = BenchmarkFixtures.resource(CORPUS);
+        pomFiles = POMS.stream()
+            .map(pom -> new File(repositoryRoot, GROUP_PATH + pom))
+            .toArray(File[]::new);
+        effectiveModelBuilder = new EffectiveModelBuilder(new CorpusArtifactProvider(repositoryRoot), modelCacheSize, null, null);
+    }
+
+    @Benchmark
+    public Model getModel() throws IOException {
+        cursor = cursor + 1 < pomFiles.length ? cursor + 1 : 0;
+        return effectiveModelBuilder.getModel(pomFiles[cursor]);
+    }
+}
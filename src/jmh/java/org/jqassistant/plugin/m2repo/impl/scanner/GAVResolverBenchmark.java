@@ -0,0 +1,58 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenVersionDescriptor;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Benchmarks {@link GAVResolver#resolve(Coordinates)} against an {@link InMemoryStore}.
+ * <p>
+ * The store and resolver are recreated for each iteration, i.e. the first pass over the coordinates creates the group, artifact and
+ * version descriptors and later passes hit the caches, as during a scan of a repository with many artifacts per GAV.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GAVResolverBenchmark {
+
+    private static final int ARTIFACTS = 30000;
+
+    private List<Coordinates> coordinates;
+
+    private GAVResolver gavResolver;
+
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUpCoordinates() {
+        CoordinatePool coordinatePool = new CoordinatePool();
+        coordinates = new ArrayList<>(ARTIFACTS);
+        for (ArtifactInfo artifactInfo : BenchmarkFixtures.artifactInfos(ARTIFACTS)) {
+            coordinates.add(new ArtifactInfoCoordinates(artifactInfo, coordinatePool));
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpResolver() {
+        Store store = InMemoryStore.create();
+        gavResolver = new GAVResolver(store, store.create(MavenRepositoryDescriptor.class), new CoordinatePool());
+        cursor = 0;
+    }
+
+    @Benchmark
+    public MavenVersionDescriptor resolve() {
+        cursor = cursor + 1 < ARTIFACTS ? cursor + 1 : 0;
+        return gavResolver.resolve(coordinates.get(cursor));
+    }
+}
@@ -0,0 +1,106 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.test.plugin.AbstractPluginIT;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.TestInfo;
+
+/**
+ * Provides the graph {@link Store} used by the integration tests to benchmarks which measure store operations.
+ * <p>
+ * The store is set up and torn down by invoking the JUnit lifecycle methods of {@link AbstractPluginIT}, i.e. benchmarks run against the
+ * same store configuration as the tests.
+ */
+final class GraphStoreFixture extends AbstractPluginIT {
+
+    /**
+     * Starts the {@link Store}.
+     *
+     * @return The {@link Store}.
+     */
+    Store start() {
+        invoke(BeforeAll.class, false);
+        invoke(BeforeEach.class, false);
+        return store;
+    }
+
+    /**
+     * Stops the {@link Store}.
+     */
+    void stop() {
+        invoke(AfterEach.class, true);
+        invoke(AfterAll.class, true);
+    }
+
+    /**
+     * The method passed as test method to the lifecycle methods.
+     */
+    void benchmark() {
+    }
+
+    private void invoke(Class<? extends Annotation> annotation, boolean subclassFirst) {
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> type = getClass(); type != Object.class; type = type.getSuperclass()) {
+            hierarchy.add(type);
+        }
+        if (!subclassFirst) {
+            Collections.reverse(hierarchy);
+        }
+        for (Class<?> type : hierarchy) {
+            for (Method method : type.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(annotation)) {
+                    method.setAccessible(true);
+                    try {
+                        method.invoke(Modifier.isStatic(method.getModifiers()) ? null : this, getArguments(method));
+                    } catch (IllegalAccessException | InvocationTargetException e) {
+                        throw new IllegalStateException("Cannot invoke lifecycle method " + method, e);
+                    }
+                }
+            }
+        }
+    }
+
+    private Object[] getArguments(Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Object[] arguments = new Object[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (TestInfo.class.equals(parameterTypes[i])) {
+                arguments[i] = createTestInfo();
+            }
+        }
+        return arguments;
+    }
+
+    private TestInfo createTestInfo() {
+        ClassLoader classLoader = GraphStoreFixture.class.getClassLoader();
+        return (TestInfo) Proxy.newProxyInstance(classLoader, new Class<?>[] { TestInfo.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+            case "getDisplayName":
+                return GraphStoreFixture.class.getSimpleName();
+            case "getTags":
+                return Collections.emptySet();
+            case "getTestClass":
+                return Optional.of(GraphStoreFixture.class);
+            case "getTestMethod":
+                return Optional.of(GraphStoreFixture.class.getDeclaredMethod("benchmark"));
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "equals":
+                return proxy == args[0];
+            default:
+                return GraphStoreFixture.class.getSimpleName();
+            }
+        });
+    }
+}
@@ -0,0 +1,124 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.xo.api.ResultIterable;
+import com.buschmais.xo.api.ResultIterator;
+import com.buschmais.xo.api.XOManager;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * A minimal {@link Store} keeping descriptors in memory, supporting the operations required by {@link GAVResolver}: caches, creating
+ * descriptors and finding them by name or fully qualified name.
+ * <p>
+ * This keeps benchmarks independent of a graph database, i.e. they measure the resolution logic and not the store.
+ */
+final class InMemoryStore implements InvocationHandler {
+
+    private static final Set<String> INDEXED_PROPERTIES = new HashSet<>(Arrays.asList("Name", "FullQualifiedName"));
+
+    private final Map<String, Object> caches = new HashMap<>();
+
+    private final Map<Class<?>, Map<Object, List<Object>>> index = new HashMap<>();
+
+    private InMemoryStore() {
+    }
+
+    /**
+     * Creates a new {@link Store}.
+     *
+     * @return The {@link Store}.
+     */
+    static Store create() {
+        return proxy(Store.class, new InMemoryStore());
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+        case "getCache":
+            return caches.computeIfAbsent((String) args[0], key -> Caffeine.newBuilder()
+                .build());
+        case "create":
+            return createDescriptor((Class<?>) args[0]);
+        case "getXOManager":
+            return proxy(XOManager.class, (p, m, a) -> {
+                if ("find".equals(m.getName())) {
+                    return find((Class<?>) a[0], a[1]);
+                }
+                return unsupported(m);
+            });
+        default:
+            return handleObjectMethod(proxy, method, args);
+        }
+    }
+
+    private Object createDescriptor(Class<?> type) {
+        Map<String, Object> properties = new HashMap<>();
+        return proxy(type, (p, m, a) -> {
+            String name = m.getName();
+            if (name.startsWith("set") && a != null && a.length == 1) {
+                String property = name.substring(3);
+                properties.put(property, a[0]);
+                if (INDEXED_PROPERTIES.contains(property)) {
+                    index.computeIfAbsent(type, t -> new HashMap<>())
+                        .computeIfAbsent(a[0], v -> new ArrayList<>())
+                        .add(p);
+                }
+                return null;
+            } else if (name.startsWith("get") && (a == null || a.length == 0)) {
+                return properties.get(name.substring(3));
+            }
+            return handleObjectMethod(p, m, a);
+        });
+    }
+
+    private ResultIterable<?> find(Class<?> type, Object value) {
+        List<Object> descriptors = index.getOrDefault(type, Collections.emptyMap())
+            .getOrDefault(value, Collections.emptyList());
+        return proxy(ResultIterable.class, (p, m, a) -> {
+            if ("iterator".equals(m.getName())) {
+                Iterator<Object> iterator = new ArrayList<>(descriptors).iterator();
+                return proxy(ResultIterator.class, (ip, im, ia) -> {
+                    switch (im.getName()) {
+                    case "hasNext":
+                        return iterator.hasNext();
+                    case "next":
+                        return iterator.next();
+                    case "close":
+                        return null;
+                    default:
+                        return handleObjectMethod(ip, im, ia);
+                    }
+                });
+            }
+            return handleObjectMethod(p, m, a);
+        });
+    }
+
+    private static Object handleObjectMethod(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+        case "equals":
+            return proxy == args[0];
+        case "hashCode":
+            return System.identityHashCode(proxy);
+        case "toString":
+            return proxy.getClass()
+                .getInterfaces()[0].getSimpleName() + "@" + Integer.toHexString(System.identityHashCode(proxy));
+        default:
+            return unsupported(method);
+        }
+    }
+
+    private static Object unsupported(Method method) {
+        throw new UnsupportedOperationException("Not supported by " + InMemoryStore.class.getSimpleName() + ": " + method);
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InMemoryStore.class.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
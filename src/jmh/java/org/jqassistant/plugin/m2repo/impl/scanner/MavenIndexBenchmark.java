@@ -0,0 +1,90 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.index.*;
+import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Benchmarks iterating over all artifacts of a {@link MavenIndex}, i.e. the query and the conversion of the Lucene documents to
+ * {@link ArtifactInfo}s.
+ * <p>
+ * The index is generated into a temporary directory using the same context layout as {@link MavenIndex}, so no repository needs to be
+ * contacted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MavenIndexBenchmark {
+
+    private static final String REPOSITORY_URL = "http://localhost/";
+
+    @Param({ "100000" })
+    public int artifacts;
+
+    private File repositoryDirectory;
+
+    private MavenIndex mavenIndex;
+
+    @Setup
+    public void setUp() throws IOException {
+        repositoryDirectory = Files.createTempDirectory("m2repo-benchmark")
+            .toFile();
+        generateIndex();
+        mavenIndex = new MavenIndex(new URL(REPOSITORY_URL), repositoryDirectory, null, null);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        mavenIndex.close();
+        FileUtils.deleteDirectory(repositoryDirectory);
+    }
+
+    @Benchmark
+    public long iterate(Blackhole blackhole) throws IOException {
+        long count = 0;
+        for (ArtifactInfo artifactInfo : mavenIndex.getArtifactsSince(new Date(0))) {
+            blackhole.consume(artifactInfo);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes the generated {@link ArtifactInfo}s to the index directory used by {@link MavenIndex}.
+     */
+    private void generateIndex() throws IOException {
+        Indexer indexer = new DefaultIndexer(new DefaultSearchEngine(), new DefaultIndexerEngine(), new DefaultQueryCreator());
+        String repoSuffix = new URL(REPOSITORY_URL).getHost();
+        List<IndexCreator> indexCreators = singletonList(new MinimalArtifactInfoIndexCreator());
+        IndexingContext indexingContext = indexer.createIndexingContext("jqa-cxt-" + repoSuffix, "jqa-repo-id-" + repoSuffix, repositoryDirectory,
+            new File(repositoryDirectory, ".index/repo-index"), REPOSITORY_URL, null, true, true, indexCreators);
+        try {
+            List<ArtifactContext> artifactContexts = new ArrayList<>(artifacts);
+            for (ArtifactInfo artifactInfo : BenchmarkFixtures.artifactInfos(artifacts)) {
+                artifactContexts.add(new ArtifactContext(null, null, null, artifactInfo, artifactInfo.calculateGav()));
+            }
+            indexer.addArtifactsToContext(artifactContexts, indexingContext);
+            indexingContext.updateTimestamp(true);
+        } finally {
+            indexer.closeIndexingContext(indexingContext, false);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.PomModelBuilder;
+
+import org.apache.maven.model.Model;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Compares the POMs per second read by the {@link StreamingPomModelBuilder} with building the effective model using the
+ * {@link EffectiveModelBuilder}, measured on a self-contained POM of the checked-in corpus.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamingPomModelBuilderBenchmark {
+
+    private static final String CORPUS = "pom-corpus";
+
+    private static final String POM = "org/jqassistant/benchmark/benchmark-standalone/1.0.0/benchmark-standalone-1.0.0.pom";
+
+    private static final long MODEL_CACHE_SIZE = 512;
+
+    @Param({ "streaming", "effective" })
+    public String builder;
+
+    private File pomFile;
+
+    private PomModelBuilder modelBuilder;
+
+    @Setup
+    public void setUp() {
+        File repositoryRoot = BenchmarkFixtures.resource(CORPUS);
+        pomFile = new File(repositoryRoot, POM);
+        EffectiveModelBuilder effectiveModelBuilder = new EffectiveModelBuilder(new CorpusArtifactProvider(repositoryRoot), MODEL_CACHE_SIZE,
+            null, null);
+        modelBuilder = "streaming".equals(builder) ? new StreamingPomModelBuilder(effectiveModelBuilder) : effectiveModelBuilder;
+    }
+
+    @TearDown
+    public void verify() {
+        if (modelBuilder instanceof StreamingPomModelBuilder && ((StreamingPomModelBuilder) modelBuilder).getDelegatedModels() > 0) {
+            throw new IllegalStateException(POM + " has not been streamed.");
+        }
+    }
+
+    @Benchmark
+    public Model getModel() throws IOException {
+        return modelBuilder.getModel(pomFile);
+    }
+}
@@ -1,8 +1,13 @@
 package org.jqassistant.plugin.m2repo.api;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
 
@@ -22,10 +27,65 @@ public interface ArtifactProvider {
      */
     ArtifactResult getArtifact(Artifact artifact) throws ArtifactResolutionException;
 
+    /**
+     * Provide the given artifact asynchronously, i.e. callers may issue further requests while the artifact is being resolved.
+     * <p>
+     * The default implementation resolves the artifact in the calling thread using {@link #getArtifact(Artifact)}.
+     *
+     * @param artifact
+     *            The artifact.
+     * @return The {@link CompletableFuture} providing the {@link ArtifactResult}, completed exceptionally with an
+     *         {@link ArtifactResolutionException} if the artifact cannot be resolved.
+     */
+    default CompletableFuture<ArtifactResult> getArtifactAsync(Artifact artifact) {
+        CompletableFuture<ArtifactResult> future = new CompletableFuture<>();
+        try {
+            future.complete(getArtifact(artifact));
+        } catch (ArtifactResolutionException | RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * Provide the given artifacts as {@link ArtifactResult}s.
+     * <p>
+     * The default implementation resolves the artifacts one after another using {@link #getArtifact(Artifact)}.
+     *
+     * @param artifacts
+     *            The artifacts.
+     * @return The {@link ArtifactResult}s in the order of the given artifacts, unresolvable artifacts are represented by
+     *         {@link ArtifactResult}s which are not resolved and carry the exceptions.
+     */
+    default List<ArtifactResult> getArtifacts(Collection<? extends Artifact> artifacts) {
+        List<ArtifactResult> artifactResults = new ArrayList<>(artifacts.size());
+        for (Artifact artifact : artifacts) {
+            try {
+                artifactResults.add(getArtifact(artifact));
+            } catch (ArtifactResolutionException e) {
+                ArtifactResult artifactResult = e.getResult();
+                artifactResults.add(
+                    artifactResult != null ? artifactResult : new ArtifactResult(new ArtifactRequest(artifact, null, null)).addException(e));
+            }
+        }
+        return artifactResults;
+    }
+
     /**
      * Return the local repository root directory.
      *
      * @return The repository root directory.
      */
     File getRepositoryRoot();
+
+    /**
+     * Return the directory for files created while scanning the repository (e.g. the scan status or temporary files).
+     * <p>
+     * The default implementation returns the {@link #getRepositoryRoot()}.
+     *
+     * @return The work directory.
+     */
+    default File getWorkDirectory() {
+        return getRepositoryRoot();
+    }
 }
@@ -8,4 +8,8 @@ public interface ArtifactInfoDescriptor extends FullQualifiedNameDescriptor {
 
     void setLastModified(Long lastModified);
 
+    String getSha1();
+
+    void setSha1(String sha1);
+
 }
@@ -0,0 +1,11 @@
+package org.jqassistant.plugin.m2repo.api.model;
+
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenPomXmlDescriptor;
+import com.buschmais.xo.neo4j.api.annotation.Label;
+
+/**
+ * Qualifies a model in a maven repository which has been read by the streaming parser instead of building its effective model.
+ */
+@Label("Streamed")
+public interface MavenStreamedModelDescriptor extends MavenPomXmlDescriptor {
+}
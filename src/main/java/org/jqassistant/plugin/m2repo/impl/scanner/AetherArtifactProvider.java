@@ -3,8 +3,10 @@ package org.jqassistant.plugin.m2repo.impl.scanner;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.*;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.repository.internal.MavenRepositorySystemUtils;
@@ -30,11 +32,15 @@ import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import static java.util.stream.Collectors.toList;
 import static org.eclipse.aether.repository.RepositoryPolicy.CHECKSUM_POLICY_IGNORE;
 import static org.eclipse.aether.repository.RepositoryPolicy.UPDATE_POLICY_DAILY;
 
 /**
  * Transfers artifacts from a remote repository to a local repository.
+ * <p>
+ * Asynchronous requests are resolved concurrently by a bounded pool of threads, batch requests are passed to the {@link RepositorySystem}
+ * which downloads the artifacts in parallel.
  *
  * @author pherklotz
  */
@@ -42,6 +48,15 @@ public class AetherArtifactProvider implements ArtifactProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AetherArtifactProvider.class);
 
+    /**
+     * The default number of threads for resolving artifacts concurrently.
+     */
+    public static final int DEFAULT_THREADS = 4;
+
+    private static final String CONFIG_PROP_CONNECTOR_THREADS = "aether.connector.basic.threads";
+
+    private static final long IDLE_THREAD_TIMEOUT_SECONDS = 60;
+
     private final URL url;
 
     private final String username;
@@ -55,8 +70,10 @@ public class AetherArtifactProvider implements ArtifactProvider {
 
     private final DefaultRepositorySystemSession session;
 
+    private final ExecutorService executorService;
+
     /**
-     * Creates a new object.
+     * Creates a new object using {@link #DEFAULT_THREADS} threads.
      *
      * @param repositoryUrl
      *            The repository url
@@ -64,6 +81,20 @@ public class AetherArtifactProvider implements ArtifactProvider {
      *            The work directory for local caching of files.
      */
     public AetherArtifactProvider(URL repositoryUrl, File workDirectory) {
+        this(repositoryUrl, workDirectory, DEFAULT_THREADS);
+    }
+
+    /**
+     * Creates a new object.
+     *
+     * @param repositoryUrl
+     *            The repository url
+     * @param workDirectory
+     *            The work directory for local caching of files.
+     * @param threads
+     *            The number of threads for resolving artifacts concurrently.
+     */
+    public AetherArtifactProvider(URL repositoryUrl, File workDirectory, int threads) {
         this.url = repositoryUrl;
         String userInfo = repositoryUrl.getUserInfo();
         this.username = StringUtils.substringBefore(userInfo, ":");
@@ -86,6 +117,8 @@ public class AetherArtifactProvider implements ArtifactProvider {
         this.repositoryRoot = new File(workDirectory, repositoryId).getAbsoluteFile();
         LOGGER.info("Using local repository '{}' for URL '{}'", repositoryRoot.getAbsolutePath(), url);
         session = newRepositorySystemSession(repositorySystem, repositoryRoot);
+        session.setConfigProperty(CONFIG_PROP_CONNECTOR_THREADS, threads);
+        executorService = newExecutorService(threads);
     }
 
     /**
@@ -123,6 +156,47 @@ public class AetherArtifactProvider implements ArtifactProvider {
         return repositorySystem.resolveArtifact(session, artifactRequest);
     }
 
+    /**
+     * Resolves the given artifact using the thread pool of this provider.
+     *
+     * @param artifact
+     *            the artifact to resolve
+     * @return The {@link CompletableFuture} providing the {@link ArtifactResult}.
+     */
+    @Override
+    public CompletableFuture<ArtifactResult> getArtifactAsync(Artifact artifact) {
+        CompletableFuture<ArtifactResult> future = new CompletableFuture<>();
+        executorService.execute(() -> {
+            try {
+                future.complete(getArtifact(artifact));
+            } catch (ArtifactResolutionException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Resolves the given artifacts with a single request to the {@link RepositorySystem}, i.e. missing artifacts are downloaded in
+     * parallel.
+     *
+     * @param artifacts
+     *            the artifacts to resolve
+     * @return The {@link ArtifactResult}s.
+     */
+    @Override
+    public List<ArtifactResult> getArtifacts(Collection<? extends Artifact> artifacts) {
+        List<ArtifactRequest> artifactRequests = artifacts.stream()
+            .map(this::createArtifactRequest)
+            .collect(toList());
+        try {
+            return repositorySystem.resolveArtifacts(session, artifactRequests);
+        } catch (ArtifactResolutionException e) {
+            // the results contain both resolved and unresolved artifacts
+            return e.getResults();
+        }
+    }
+
     @Override
     public File getRepositoryRoot() {
         return repositoryRoot;
@@ -168,6 +242,25 @@ public class AetherArtifactProvider implements ArtifactProvider {
         return locator.getService(RepositorySystem.class);
     }
 
+    /**
+     * Creates the {@link ExecutorService} for asynchronous requests. Its threads are daemons and terminate if idle, so the provider does not
+     * need to be closed.
+     *
+     * @param threads
+     *            The maximum number of threads.
+     * @return The {@link ExecutorService}.
+     */
+    private static ExecutorService newExecutorService(int threads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, AetherArtifactProvider.class.getSimpleName() + "-Resolve");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     /**
      * Creates a new {@link RepositorySystemSession}.
      *
@@ -6,42 +6,66 @@ import org.apache.maven.index.ArtifactInfo;
 
 /**
  * Represents {@link Coordinates} based on an {@link ArtifactInfo}.
+ * <p>
+ * The coordinate values are taken from a {@link CoordinatePool}, i.e. the {@link ArtifactInfo} is not referenced.
  */
 public class ArtifactInfoCoordinates implements Coordinates {
 
-    private final ArtifactInfo artifactInfo;
+    /**
+     * The {@link CoordinatePool} used for instances which are not created by a scan.
+     */
+    private static final CoordinatePool DEFAULT_POOL = new CoordinatePool();
+
+    private final String group;
+
+    private final String name;
+
+    private final String classifier;
+
+    private final String type;
+
+    private final String version;
 
     public ArtifactInfoCoordinates(ArtifactInfo artifactInfo) {
-        this.artifactInfo = artifactInfo;
+        this(artifactInfo, DEFAULT_POOL);
+    }
+
+    ArtifactInfoCoordinates(ArtifactInfo artifactInfo, CoordinatePool coordinatePool) {
+        this.group = coordinatePool.canonical(artifactInfo.getGroupId());
+        this.name = coordinatePool.canonical(artifactInfo.getArtifactId());
+        this.classifier = coordinatePool.canonical(artifactInfo.getClassifier());
+        this.type = coordinatePool.canonical(artifactInfo.getPackaging());
+        this.version = coordinatePool.canonical(artifactInfo.getVersion());
     }
 
     @Override
     public String getGroup() {
-        return artifactInfo.getGroupId();
+        return group;
     }
 
     @Override
     public String getName() {
-        return artifactInfo.getArtifactId();
+        return name;
     }
 
     @Override
     public String getClassifier() {
-        return artifactInfo.getClassifier();
+        return classifier;
     }
 
     @Override
     public String getType() {
-        return artifactInfo.getPackaging();
+        return type;
     }
 
     @Override
     public String getVersion() {
-        return artifactInfo.getVersion();
+        return version;
     }
 
     @Override
     public String toString() {
-        return "ArtifactInfoCoordinates{" + "artifactInfo=" + artifactInfo + '}';
+        return "ArtifactInfoCoordinates{" + "group='" + group + '\'' + ", name='" + name + '\'' + ", classifier='" + classifier + '\''
+            + ", type='" + type + '\'' + ", version='" + version + '\'' + '}';
     }
 }
@@ -2,28 +2,30 @@ package org.jqassistant.plugin.m2repo.impl.scanner;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Objects;
-import java.util.Optional;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.*;
 import java.util.concurrent.*;
 
 import com.buschmais.jqassistant.core.scanner.api.Scanner;
 import com.buschmais.jqassistant.core.store.api.Store;
 import com.buschmais.jqassistant.core.store.api.model.Descriptor;
-import com.buschmais.jqassistant.plugin.common.api.model.DependsOnDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.*;
 import com.buschmais.jqassistant.plugin.maven3.api.model.*;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.PomModelBuilder;
+import com.buschmais.xo.api.Query;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.apache.commons.lang3.time.StopWatch;
-import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.model.Model;
 import org.eclipse.aether.artifact.Artifact;
-import org.eclipse.aether.resolution.ArtifactResult;
 import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
 import org.jqassistant.plugin.m2repo.api.model.ArtifactInfoDescriptor;
 import org.jqassistant.plugin.m2repo.api.model.MavenReleaseDescriptor;
 import org.jqassistant.plugin.m2repo.api.model.MavenSnapshotDescriptor;
+import org.jqassistant.plugin.m2repo.api.model.MavenStreamedModelDescriptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,21 +39,51 @@ public class ArtifactSearchResultScanner {
     private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactSearchResultScanner.class);
 
     private static final String EXTENSION_POM = "pom";
-    private static final int QUEUE_CAPACITY = 500;
+    private static final String EFFECTIVE_MODELS_DIRECTORY = ".effective-models";
+    private static final String SORT_DIRECTORY = ".sort";
+    private static final int SORT_CHUNK_SIZE = 100000;
+    private static final String STATUS_FILE = ".scan-status.json";
+    private static final String LATENCY_REPORT_FILE = ".scan-latencies.json";
+    private static final Duration STATUS_INTERVAL = Duration.ofSeconds(10);
+    private static final String COMPLETED_ARTIFACTS = "MATCH (repository)-[:CONTAINS_ARTIFACT|CONTAINS_POM]->(artifact) " //
+        + "WHERE id(repository) = $repository AND artifact.lastModified > $since " //
+        + "RETURN artifact.fqn AS fqn";
 
     private final Scanner scanner;
     private final ArtifactProvider artifactProvider;
     private final ArtifactFilter artifactFilter;
-    private final boolean scanArtifacts;
-    private final boolean keepArtifacts;
+    private final ScanOptions options;
 
-    public ArtifactSearchResultScanner(Scanner scanner, ArtifactProvider artifactProvider, ArtifactFilter artifactFilter, boolean scanArtifacts,
-        boolean keepArtifacts) {
+    /**
+     * The {@link ScanMetrics} of the current scan.
+     */
+    private ScanMetrics metrics;
+
+    /**
+     * The {@link ProgressReporter} of the current scan.
+     */
+    private ProgressReporter progressReporter;
+
+    /**
+     * The {@link DuplicateArtifactLinker} of the current scan, <code>null</code> if duplicate artifacts shall be scanned.
+     */
+    private DuplicateArtifactLinker duplicateArtifactLinker;
+
+    /**
+     * The {@link ScanCheckpoint} of the current scan, <code>null</code> if the scan is not resumable.
+     */
+    private ScanCheckpoint checkpoint;
+
+    /**
+     * The {@link CoordinatePool} of the current scan.
+     */
+    private CoordinatePool coordinatePool;
+
+    public ArtifactSearchResultScanner(Scanner scanner, ArtifactProvider artifactProvider, ArtifactFilter artifactFilter, ScanOptions options) {
         this.scanner = scanner;
         this.artifactProvider = artifactProvider;
         this.artifactFilter = artifactFilter;
-        this.scanArtifacts = scanArtifacts;
-        this.keepArtifacts = keepArtifacts;
+        this.options = options;
     }
 
     /**
@@ -63,67 +95,221 @@ public class ArtifactSearchResultScanner {
      * @param repositoryDescriptor
      *     The {@link MavenRepositoryDescriptor}.
      * @throws IOException
-     *     When an artifact result could not be retrieved.
+     *     When an artifact result could not be retrieved or the scan has been interrupted, in the latter case the interrupt status of the
+     *     thread is set.
      */
     public void scan(ArtifactSearchResult artifactSearchResult, MavenRepositoryDescriptor repositoryDescriptor) throws IOException {
-        PomModelBuilder effectiveModelBuilder = new EffectiveModelBuilder(artifactProvider);
+        if (options.isSortArtifacts()) {
+            LOGGER.info("Sorting artifacts by groupId, artifactId and version.");
+            try (SortedArtifactInfos sortedArtifactInfos = SortedArtifactInfos.sort(artifactSearchResult, SORT_CHUNK_SIZE,
+                new File(artifactProvider.getWorkDirectory(), SORT_DIRECTORY))) {
+                scanArtifacts(new ArtifactSearchResult(sortedArtifactInfos, sortedArtifactInfos.getSize()), repositoryDescriptor);
+            }
+        } else {
+            scanArtifacts(artifactSearchResult, repositoryDescriptor);
+        }
+    }
+
+    private void scanArtifacts(ArtifactSearchResult artifactSearchResult, MavenRepositoryDescriptor repositoryDescriptor) throws IOException {
+        EffectiveModelBuilder effectiveModelBuilder = new EffectiveModelBuilder(artifactProvider, options.getParentModelCacheSize(),
+            options.isPersistEffectiveModels() ? new File(artifactProvider.getWorkDirectory(), EFFECTIVE_MODELS_DIRECTORY) : null,
+            options.getPersistedEffectiveModelExpiry());
+        StreamingPomModelBuilder streamingModelBuilder = options.isStreamModels() ? new StreamingPomModelBuilder(effectiveModelBuilder) : null;
+        PomModelBuilder modelBuilder = streamingModelBuilder != null ? streamingModelBuilder : effectiveModelBuilder;
+        coordinatePool = new CoordinatePool();
         GAVResolver gavResolver = new GAVResolver(scanner.getContext()
-            .getStore(), repositoryDescriptor);
+            .getStore(), repositoryDescriptor, coordinatePool);
+        checkpoint = options.isResumable() ? ScanCheckpoint.open(artifactProvider.getWorkDirectory(), repositoryDescriptor.getUrl()) : null;
+        CompletedArtifacts completedArtifacts = checkpoint != null && checkpoint.isResumed() ? getCompletedArtifacts(repositoryDescriptor) :
+            CompletedArtifacts.NONE;
 
-        BlockingQueue<ArtifactTask.Result> queue = new LinkedBlockingDeque<>(QUEUE_CAPACITY);
-        ExecutorService pool = Executors.newFixedThreadPool(1, r -> new Thread(r, ArtifactTask.class.getSimpleName()));
-        Future<?> future = pool.submit(new ArtifactTask(artifactSearchResult, artifactFilter, scanArtifacts, queue, artifactProvider));
+        BlockingQueue<ArtifactTask.Result> queue = new LinkedBlockingDeque<>(options.getQueueCapacity());
+        Cache<String, MavenPomXmlDescriptor> cache = createModelCache();
+        metrics = new ScanMetrics();
+        metrics.setQueueDepth(queue::size);
+        metrics.setModelCacheStats(cache::stats);
+        metrics.setParentModelCacheStats(effectiveModelBuilder::getModelCacheStats);
+        metrics.register();
+        progressReporter = new ProgressReporter(new File(artifactProvider.getWorkDirectory(), STATUS_FILE), repositoryDescriptor.getUrl(),
+            artifactSearchResult.getSize(), metrics, STATUS_INTERVAL);
+        progressReporter.start();
+        ExecutorService pool = Executors.newFixedThreadPool(1, r -> {
+            Thread thread = new Thread(r, ArtifactTask.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Future<?> future = pool.submit(new ArtifactTask(artifactSearchResult, artifactFilter, options.isScanArtifacts(),
+            options.getArtifactSelector(), queue, artifactProvider, options.getFetchThreads(), coordinatePool, modelBuilder, completedArtifacts,
+            metrics));
 
         LOGGER.info("Starting scan.");
+        duplicateArtifactLinker = options.isLinkDuplicateArtifacts() ? new DuplicateArtifactLinker(scanner.getContext()
+            .getStore()) : null;
         StopWatch stopwatch = StopWatch.createStarted();
+        boolean success = false;
+        boolean interrupted = false;
         try {
-            long artifactCount = consume(artifactSearchResult, queue, effectiveModelBuilder, gavResolver, repositoryDescriptor, stopwatch);
+            DependencyWriter dependencyWriter = new DependencyWriter(scanner.getContext()
+                .getStore());
+            long artifactCount = consume(queue, modelBuilder, effectiveModelBuilder, gavResolver, repositoryDescriptor, cache,
+                dependencyWriter, stopwatch);
+            writeDependencies(dependencyWriter);
             // force potential exception from task to be thrown
             future.get();
-            LOGGER.info("Finished scan: {} artifacts (duration: {}).", artifactCount, ofMillis(stopwatch.getTime()));
+            if (checkpoint != null) {
+                checkpoint.complete();
+            }
+            success = true;
+            LOGGER.info("Finished scan: {} artifacts (duration: {}, model cache: {}, parent model cache: {}, version cache: {}).", artifactCount,
+                ofMillis(stopwatch.getTime()), format(cache.stats()), format(effectiveModelBuilder.getModelCacheStats()), format(gavResolver));
+            if (options.isScanArtifacts()) {
+                LOGGER.info("Scanned content of {} artifacts ({}), linked {} duplicate artifacts.", metrics.getContentScans(),
+                    formatContentScanThroughput(), duplicateArtifactLinker != null ? duplicateArtifactLinker.getLinkedArtifacts() : 0);
+            }
+            if (streamingModelBuilder != null) {
+                LOGGER.info("Streamed {} models, built {} effective models.", streamingModelBuilder.getStreamedModels(),
+                    streamingModelBuilder.getDelegatedModels());
+            }
+            LOGGER.info(metrics.summary());
+            LOGGER.info(metrics.slowestOperations());
         } catch (InterruptedException e) {
-            LOGGER.warn("Interrupted while waiting for artifact result", e);
-            Thread.currentThread()
-                .interrupt();
+            // the scan is incomplete, i.e. the repository must not be marked as updated
+            interrupted = true;
+            InterruptedIOException interruptedIOException = new InterruptedIOException("Interrupted while waiting for artifact result.");
+            interruptedIOException.initCause(e);
+            throw interruptedIOException;
         } catch (ExecutionException e) {
             throw new IOException("Artifact task returned reported a problem.", e);
         } finally {
             pool.shutdownNow();
+            if (!options.isKeepArtifacts()) {
+                effectiveModelBuilder.deleteResolvedModels();
+            }
+            progressReporter.stop(success);
+            metrics.writeLatencyReport(new File(artifactProvider.getWorkDirectory(), LATENCY_REPORT_FILE));
+            metrics.unregister();
+            if (interrupted) {
+                // restored after the status and the latency report have been written as an interrupt closes their file channels
+                Thread.currentThread()
+                    .interrupt();
+            }
         }
     }
 
-    private long consume(ArtifactSearchResult artifactSearchResult, BlockingQueue<ArtifactTask.Result> queue, PomModelBuilder effectiveModelBuilder,
-        GAVResolver gavResolver, MavenRepositoryDescriptor repositoryDescriptor, StopWatch stopwatch) throws InterruptedException {
-        Cache<String, MavenPomXmlDescriptor> cache = Caffeine.newBuilder()
-            .maximumSize(256)
-            .build();
+    /**
+     * Writes the buffered dependencies, flushes the {@link Store} and commits the checkpoint (if enabled).
+     *
+     * @param dependencyWriter
+     *     The {@link DependencyWriter}.
+     * @param artifactCount
+     *     The number of artifacts processed so far.
+     */
+    private void flush(DependencyWriter dependencyWriter, long artifactCount) {
+        ScanEvents.Flush event = new ScanEvents.Flush();
+        event.begin();
+        String outcome = ScanEvents.OUTCOME_FAILURE;
+        try {
+            writeDependencies(dependencyWriter);
+            long start = System.nanoTime();
+            Store store = scanner.getContext()
+                .getStore();
+            store.flush();
+            if (checkpoint != null) {
+                checkpoint.commit(store, artifactCount);
+            }
+            metrics.flush()
+                .record(start);
+            outcome = ScanEvents.OUTCOME_SUCCESS;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.processedArtifacts = artifactCount;
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Writes the buffered dependencies of the {@link DependencyWriter}.
+     *
+     * @param dependencyWriter
+     *     The {@link DependencyWriter}.
+     */
+    private void writeDependencies(DependencyWriter dependencyWriter) {
+        long start = System.nanoTime();
+        dependencyWriter.flush();
+        metrics.dependencyWrite()
+            .record(start);
+    }
+
+    /**
+     * Determines the fully qualified names of the models and artifacts which have been committed by an interrupted scan.
+     *
+     * @param repositoryDescriptor
+     *     The {@link MavenRepositoryDescriptor}.
+     * @return The {@link CompletedArtifacts}.
+     */
+    private CompletedArtifacts getCompletedArtifacts(MavenRepositoryDescriptor repositoryDescriptor) {
+        Map<String, Object> parameters = new HashMap<>(2);
+        parameters.put("repository", repositoryDescriptor.getId());
+        parameters.put("since", repositoryDescriptor.getLastUpdate());
+        CompletedArtifacts.Builder builder = new CompletedArtifacts.Builder();
+        for (Query.Result.CompositeRowObject row : scanner.getContext()
+            .getStore()
+            .executeQuery(COMPLETED_ARTIFACTS, parameters)) {
+            builder.add(row.get("fqn", String.class));
+        }
+        CompletedArtifacts completedArtifacts = builder.build();
+        LOGGER.info("Skipping {} models and artifacts completed by the interrupted scan.", completedArtifacts.size());
+        return completedArtifacts;
+    }
+
+    /**
+     * Creates the cache for {@link MavenPomXmlDescriptor}s according to the configured size and expiry.
+     * <p>
+     * Each entry holds exactly one descriptor, so the maximum size limits the number of held descriptors.
+     *
+     * @return The {@link Cache}.
+     */
+    private Cache<String, MavenPomXmlDescriptor> createModelCache() {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .maximumSize(options.getModelCacheSize())
+            .recordStats();
+        if (options.getModelCacheExpiry() != null) {
+            builder.expireAfterAccess(options.getModelCacheExpiry());
+        }
+        return builder.build();
+    }
+
+    private long consume(BlockingQueue<ArtifactTask.Result> queue, PomModelBuilder modelBuilder,
+        EffectiveModelBuilder effectiveModelBuilder, GAVResolver gavResolver, MavenRepositoryDescriptor repositoryDescriptor,
+        Cache<String, MavenPomXmlDescriptor> cache, DependencyWriter dependencyWriter, StopWatch stopwatch)
+        throws InterruptedException {
         ArtifactTask.Result result;
         long artifactCount = 0;
         while ((result = queue.take()) != ArtifactTask.Result.LAST) {
-            ArtifactInfo artifactInfo = result.getArtifactInfo();
-            Coordinates artifactCoordinates = new ArtifactInfoCoordinates(artifactInfo);
-            LOGGER.debug("Processing '{}'.", artifactInfo);
-            long lastModified = artifactInfo.getLastModified();
+            Coordinates artifactCoordinates = result.getCoordinates();
+            LOGGER.debug("Processing '{}'.", artifactCoordinates);
+            long lastModified = result.getLastModified();
             boolean snapshot = MavenArtifactHelper.isSnapshot(artifactCoordinates);
-            Optional<ArtifactResult> modelArtifactResult = result.getModelArtifactResult();
+            Optional<Artifact> modelArtifact = result.getModelArtifact();
             MavenPomXmlDescriptor modelDescriptor = null;
-            if (modelArtifactResult.isPresent()) {
-                Artifact modelArtifact = modelArtifactResult.get()
-                    .getArtifact();
-                modelDescriptor = getModel(modelArtifact, snapshot, lastModified, repositoryDescriptor, effectiveModelBuilder, cache);
+            if (modelArtifact.isPresent()) {
+                modelDescriptor = getModel(modelArtifact.get(), result.getModel(), snapshot, lastModified, repositoryDescriptor, modelBuilder, cache);
             } else {
-                LOGGER.warn("No model found for {}.", artifactInfo);
+                LOGGER.warn("No model found for {}.", artifactCoordinates);
             }
             // Skip if the POM itself is the artifact
-            if (!EXTENSION_POM.equals(artifactInfo.getPackaging())) { // Note: packaging can be null
-                MavenArtifactDescriptor mavenArtifactDescriptor = repositoryDescriptor.findArtifact(MavenArtifactHelper.getId(artifactCoordinates));
+            if (!EXTENSION_POM.equals(artifactCoordinates.getType())) { // Note: packaging can be null
+                MavenArtifactDescriptor mavenArtifactDescriptor = repositoryDescriptor.findArtifact(coordinatePool.getId(artifactCoordinates));
                 if (mavenArtifactDescriptor == null) {
-                    mavenArtifactDescriptor = getArtifact(artifactCoordinates, result.getArtifactResult(), snapshot, lastModified);
+                    mavenArtifactDescriptor = getArtifact(artifactCoordinates, result.getArtifact(), result.getSha1(), snapshot, lastModified);
                     if (modelDescriptor != null) {
                         // Add DESCRIBES relation from model to artifact if it does not exist yet (e.g. due to an invalid model)
                         modelDescriptor.getDescribes()
                             .add(mavenArtifactDescriptor);
-                        propagateDependencies(modelDescriptor, mavenArtifactDescriptor);
+                        propagateDependencies(modelDescriptor, mavenArtifactDescriptor, dependencyWriter);
                     }
                     repositoryDescriptor.addArtifact(mavenArtifactDescriptor);
                     gavResolver.resolve(artifactCoordinates)
@@ -132,11 +318,16 @@ public class ArtifactSearchResultScanner {
                 }
             }
             artifactCount++;
+            metrics.artifactProcessed();
             if (artifactCount % 500 == 0) {
-                LOGGER.info("Processed {}/{} artifacts (duration: {}).", artifactCount, artifactSearchResult.getSize(), ofMillis(stopwatch.getTime()));
-                scanner.getContext()
-                    .getStore()
-                    .flush();
+                LOGGER.info(
+                    "Processed {}/{} artifacts (duration: {}, rate: {}/s, ETA: {}, model cache: {}, parent model cache: {}, content scan: {}).",
+                    artifactCount, progressReporter.getExpectedArtifacts(), ofMillis(stopwatch.getTime()),
+                    String.format("%.1f", progressReporter.getRate()), progressReporter.getEta()
+                        .map(Object::toString)
+                        .orElse("unknown"), format(cache.stats()), format(effectiveModelBuilder.getModelCacheStats()),
+                    formatContentScanThroughput());
+                flush(dependencyWriter, artifactCount);
             }
         }
         return artifactCount;
@@ -149,16 +340,14 @@ public class ArtifactSearchResultScanner {
      *     The {@link MavenPomXmlDescriptor}.
      * @param artifact
      *     The {@link MavenArtifactDescriptor}.
+     * @param dependencyWriter
+     *     The {@link DependencyWriter} for creating the dependencies.
      */
-    private void propagateDependencies(MavenPomXmlDescriptor model, MavenArtifactDescriptor artifact) {
+    private void propagateDependencies(MavenPomXmlDescriptor model, MavenArtifactDescriptor artifact, DependencyWriter dependencyWriter) {
         if (model instanceof EffectiveDescriptor && Objects.equals(model.getPackaging(), artifact.getType()) && Objects.equals(model.getClassifier(),
             artifact.getClassifier())) {
             for (MavenDependencyDescriptor declaresDependency : model.getDeclaresDependencies()) {
-                DependsOnDescriptor dependsOnDescriptor = scanner.getContext()
-                    .getStore()
-                    .create(artifact, DependsOnDescriptor.class, declaresDependency.getToArtifact());
-                dependsOnDescriptor.setScope(declaresDependency.getScope());
-                dependsOnDescriptor.setOptional(declaresDependency.isOptional());
+                dependencyWriter.add(artifact, declaresDependency.getToArtifact(), declaresDependency.getScope(), declaresDependency.isOptional());
             }
         }
     }
@@ -168,34 +357,45 @@ public class ArtifactSearchResultScanner {
      *
      * @param modelArtifact
      *     The {@link Artifact} representing the model.
+     * @param model
+     *     The optional {@link Model} which has already been built for the model {@link Artifact}.
      * @param snapshot
      *     <code>true</code> if the artifact represents a snapshot.
      * @param lastModified
      *     The last modified timestamp.
      * @param repositoryDescriptor
      *     The {@link MavenRepositoryDescriptor}.
-     * @param effectiveModelBuilder
-     *     The {@link PomModelBuilder}.
+     * @param modelBuilder
+     *     The {@link PomModelBuilder} used if the {@link Model} has not been built yet.
      * @param cache
      *     The {@link Cache}.
      * @return The {@link MavenPomXmlDescriptor} representing the model.
      */
-    private MavenPomXmlDescriptor getModel(Artifact modelArtifact, boolean snapshot, long lastModified, MavenRepositoryDescriptor repositoryDescriptor,
-        PomModelBuilder effectiveModelBuilder, Cache<String, MavenPomXmlDescriptor> cache) {
+    private MavenPomXmlDescriptor getModel(Artifact modelArtifact, Optional<Model> model, boolean snapshot, long lastModified,
+        MavenRepositoryDescriptor repositoryDescriptor, PomModelBuilder modelBuilder, Cache<String, MavenPomXmlDescriptor> cache) {
         AetherArtifactCoordinates modelCoordinates = new AetherArtifactCoordinates(modelArtifact);
-        String fqn = MavenArtifactHelper.getId(modelCoordinates);
+        String fqn = coordinatePool.getId(modelCoordinates);
         return cache.get(fqn, key -> {
             MavenPomXmlDescriptor modelDescriptor = snapshot ? repositoryDescriptor.findSnapshotModel(key) : repositoryDescriptor.findReleaseModel(key);
             if (modelDescriptor == null) {
+                PrebuiltModelBuilder prebuiltModelBuilder = new PrebuiltModelBuilder(model, modelBuilder);
                 scanner.getContext()
-                    .push(PomModelBuilder.class, effectiveModelBuilder);
+                    .push(PomModelBuilder.class, prebuiltModelBuilder);
                 try {
                     LOGGER.info("Scanning model '{}'.", modelArtifact);
+                    long start = System.nanoTime();
                     modelDescriptor = scan(modelArtifact);
+                    metrics.modelScan()
+                        .record(start, modelArtifact);
                 } finally {
                     scanner.getContext()
                         .pop(PomModelBuilder.class);
                 }
+                if (prebuiltModelBuilder.isStreamed()) {
+                    modelDescriptor = scanner.getContext()
+                        .getStore()
+                        .addDescriptorType(modelDescriptor, MavenStreamedModelDescriptor.class);
+                }
                 markReleaseOrSnaphot(modelDescriptor, modelCoordinates, snapshot, lastModified);
                 repositoryDescriptor.addModel(modelDescriptor);
             }
@@ -208,38 +408,69 @@ public class ArtifactSearchResultScanner {
      *
      * @param artifactCoordinates
      *     The {@link Coordinates}.
-     * @param artifactResult
-     *     The optional {@link ArtifactResult}.
+     * @param artifact
+     *     The optional resolved {@link Artifact}.
+     * @param sha1
+     *     The optional SHA-1 checksum of the artifact.
      * @param snapshot
      *     <code>true</code> if the artifact represents a snapshot.
      * @param lastModified
      *     The last modified timestamp.
      * @return The {@link MavenArtifactDescriptor}.
      */
-    private MavenArtifactDescriptor getArtifact(Coordinates artifactCoordinates, Optional<ArtifactResult> artifactResult, boolean snapshot, long lastModified) {
+    private MavenArtifactDescriptor getArtifact(Coordinates artifactCoordinates, Optional<Artifact> artifact, Optional<String> sha1, boolean snapshot,
+        long lastModified) {
         MavenArtifactDescriptor mavenArtifactDescriptor;
-        if (artifactResult.isPresent()) {
+        Optional<Descriptor> original = duplicateArtifactLinker != null ? sha1.flatMap(duplicateArtifactLinker::find) : Optional.empty();
+        if (artifact.isPresent() && original.isPresent()) {
+            // Link byte-identical artifact to the content which has already been scanned
+            LOGGER.info("Linking artifact '{}' to scanned content with SHA-1 {}.", artifact.get(), sha1.get());
+            mavenArtifactDescriptor = duplicateArtifactLinker.link(original.get(), resolve(artifactCoordinates), artifact.get()
+                .getFile()
+                .getAbsolutePath());
+            if (!options.isKeepArtifacts()) {
+                artifact.get()
+                    .getFile()
+                    .delete();
+            }
+        } else if (artifact.isPresent()) {
             // Scan artifact from repository
-            Artifact artifact = artifactResult.get()
-                .getArtifact();
-            LOGGER.info("Scanning artifact '{}'.", artifact);
-            Descriptor descriptor = scan(artifact);
+            LOGGER.info("Scanning artifact '{}'.", artifact.get());
+            long start = System.nanoTime();
+            Descriptor descriptor = scan(artifact.get());
+            metrics.contentScan()
+                .record(start, artifact.get());
             mavenArtifactDescriptor = scanner.getContext()
                 .getStore()
                 .addDescriptorType(descriptor, MavenArtifactDescriptor.class);
             MavenArtifactHelper.setCoordinates(mavenArtifactDescriptor, artifactCoordinates);
+            if (duplicateArtifactLinker != null && sha1.isPresent()) {
+                duplicateArtifactLinker.register(sha1.get(), mavenArtifactDescriptor);
+            }
         } else {
             // Resolve artifact without scanning
-            mavenArtifactDescriptor = scanner.getContext()
-                .peek(ArtifactResolver.class)
-                .resolve(artifactCoordinates, scanner.getContext());
+            mavenArtifactDescriptor = resolve(artifactCoordinates);
         }
-        markReleaseOrSnaphot(mavenArtifactDescriptor, artifactCoordinates, snapshot, lastModified);
+        ArtifactInfoDescriptor artifactInfoDescriptor = markReleaseOrSnaphot(mavenArtifactDescriptor, artifactCoordinates, snapshot, lastModified);
+        sha1.ifPresent(artifactInfoDescriptor::setSha1);
         return mavenArtifactDescriptor;
     }
 
     /**
-     * Scans the given {@link Artifact}.
+     * Resolves the {@link MavenArtifactDescriptor} for the given {@link Coordinates} without scanning it.
+     *
+     * @param artifactCoordinates
+     *     The {@link Coordinates}.
+     * @return The {@link MavenArtifactDescriptor}.
+     */
+    private MavenArtifactDescriptor resolve(Coordinates artifactCoordinates) {
+        return scanner.getContext()
+            .peek(ArtifactResolver.class)
+            .resolve(artifactCoordinates, scanner.getContext());
+    }
+
+    /**
+     * Scans the given {@link Artifact}. Its file is deleted afterwards if artifacts shall not be kept.
      *
      * @param artifact
      *     The {@link Artifact}.
@@ -249,15 +480,97 @@ public class ArtifactSearchResultScanner {
      */
     private <D extends Descriptor> D scan(Artifact artifact) {
         File artifactFile = artifact.getFile();
+        ScanEvents.ScanArtifact event = new ScanEvents.ScanArtifact();
+        event.begin();
+        String outcome = ScanEvents.OUTCOME_FAILURE;
         try {
-            return scanner.scan(artifactFile, artifactFile.getAbsolutePath(), null);
+            D descriptor = scanner.scan(artifactFile, artifactFile.getAbsolutePath(), null);
+            outcome = ScanEvents.OUTCOME_SUCCESS;
+            return descriptor;
         } finally {
-            if (!keepArtifacts) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.coordinates = artifact.toString();
+                event.bytes = artifactFile.length();
+                event.outcome = outcome;
+                event.commit();
+            }
+            // a deleted POM which is still required as parent by a fetch thread is resolved again by the EffectiveModelBuilder
+            if (!options.isKeepArtifacts()) {
                 artifactFile.delete();
             }
         }
     }
 
+    /**
+     * A {@link PomModelBuilder} providing a {@link Model} which has already been built by the fetching thread.
+     */
+    private static final class PrebuiltModelBuilder implements PomModelBuilder {
+
+        private final Optional<Model> model;
+
+        private final PomModelBuilder delegate;
+
+        private boolean streamed;
+
+        private PrebuiltModelBuilder(Optional<Model> model, PomModelBuilder delegate) {
+            this.model = model;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Model getModel(File pomFile) throws IOException {
+            Model providedModel = model.isPresent() ? model.get() : delegate.getModel(pomFile);
+            streamed = StreamingPomModelBuilder.isStreamed(providedModel);
+            return providedModel;
+        }
+
+        /**
+         * Determines if the provided {@link Model} has been read by the {@link StreamingPomModelBuilder}.
+         *
+         * @return <code>true</code> if the provided {@link Model} has been streamed.
+         */
+        private boolean isStreamed() {
+            return streamed;
+        }
+    }
+
+    /**
+     * Formats the given {@link CacheStats} for logging.
+     *
+     * @param stats
+     *     The {@link CacheStats}.
+     * @return The formatted {@link CacheStats}.
+     */
+    private static String format(CacheStats stats) {
+        return String.format("%d hits, %d misses, hit rate %.1f%%, %d evictions", stats.hitCount(), stats.missCount(), stats.hitRate() * 100,
+            stats.evictionCount());
+    }
+
+    /**
+     * Formats the version cache statistics of the {@link GAVResolver} for logging.
+     *
+     * @param gavResolver
+     *     The {@link GAVResolver}.
+     * @return The formatted statistics.
+     */
+    private static String format(GAVResolver gavResolver) {
+        long requests = gavResolver.getVersionRequests();
+        long misses = gavResolver.getVersionMisses();
+        long hits = requests - misses;
+        return String.format("%d hits, %d misses, hit rate %.1f%%", hits, misses, requests > 0 ? hits * 100d / requests : 0d);
+    }
+
+    /**
+     * Formats the duration and throughput of content scans for logging.
+     *
+     * @return The formatted throughput.
+     */
+    private String formatContentScanThroughput() {
+        ScanMetrics.Stage contentScan = metrics.contentScan();
+        return String.format("%s, %.1f artifacts/s", ofMillis(contentScan.getMillis()), contentScan.getRate());
+    }
+
     /**
      * Adds a `Release` or `Snapshot` label to the given maven descriptor depending
      * on the artifact version type.
@@ -270,8 +583,10 @@ public class ArtifactSearchResultScanner {
      *     if the artifact is a snapshot
      * @param lastModified
      *     last modified date
+     * @return The {@link ArtifactInfoDescriptor}.
      */
-    private <D extends MavenDescriptor> void markReleaseOrSnaphot(D descriptor, Coordinates coordinates, boolean snapshot, Long lastModified) {
+    private <D extends MavenDescriptor> ArtifactInfoDescriptor markReleaseOrSnaphot(D descriptor, Coordinates coordinates, boolean snapshot,
+        Long lastModified) {
         ArtifactInfoDescriptor artifactInfoDescriptor;
         Store store = scanner.getContext()
             .getStore();
@@ -281,8 +596,9 @@ public class ArtifactSearchResultScanner {
             artifactInfoDescriptor = store.addDescriptorType(descriptor, MavenReleaseDescriptor.class);
         }
         if (artifactInfoDescriptor.getFullQualifiedName() == null) {
-            artifactInfoDescriptor.setFullQualifiedName(MavenArtifactHelper.getId(coordinates));
+            artifactInfoDescriptor.setFullQualifiedName(coordinatePool.getId(coordinates));
         }
         artifactInfoDescriptor.setLastModified(lastModified);
+        return artifactInfoDescriptor;
     }
 }
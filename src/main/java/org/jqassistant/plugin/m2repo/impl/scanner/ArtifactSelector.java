@@ -0,0 +1,68 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Selects the artifacts to download for scanning based on the size, extension and classifier reported by the index.
+ * <p>
+ * Artifacts which are not selected are not downloaded, only their coordinates are recorded.
+ */
+public class ArtifactSelector {
+
+    private final long maxSize;
+
+    private final Set<String> extensions;
+
+    private final Set<String> excludedClassifiers;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize
+     *     The maximum size in bytes of an artifact to select, a value less or equal to 0 selects artifacts of any size.
+     * @param extensions
+     *     A comma separated list of extensions to select, <code>null</code> selects all extensions.
+     * @param excludedClassifiers
+     *     A comma separated list of classifiers to exclude, <code>null</code> excludes no classifiers.
+     */
+    public ArtifactSelector(long maxSize, String extensions, String excludedClassifiers) {
+        this.maxSize = maxSize;
+        this.extensions = split(extensions);
+        this.excludedClassifiers = split(excludedClassifiers);
+    }
+
+    /**
+     * Determines if an artifact shall be downloaded for scanning.
+     *
+     * @param classifier
+     *     The classifier, may be <code>null</code>.
+     * @param extension
+     *     The file extension.
+     * @param size
+     *     The size in bytes, a negative value if unknown.
+     * @return <code>true</code> if the artifact shall be downloaded.
+     */
+    public boolean select(String classifier, String extension, long size) {
+        if (maxSize > 0 && size > maxSize) {
+            return false;
+        }
+        if (!extensions.isEmpty() && !extensions.contains(extension)) {
+            return false;
+        }
+        return classifier == null || !excludedClassifiers.contains(classifier);
+    }
+
+    private static Set<String> split(String values) {
+        if (values == null) {
+            return Collections.emptySet();
+        }
+        return Arrays.stream(values.split(","))
+            .map(String::trim)
+            .filter(value -> !value.isEmpty())
+            .collect(toSet());
+    }
+}
@@ -1,16 +1,27 @@
 package org.jqassistant.plugin.m2repo.impl.scanner;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.Callable;
+import java.util.concurrent.*;
 
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.AetherArtifactCoordinates;
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactFilter;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.PomModelBuilder;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.maven.RepositoryUtils;
 import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.model.Model;
 import org.eclipse.aether.artifact.Artifact;
 import org.eclipse.aether.artifact.DefaultArtifact;
-import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
 import org.slf4j.Logger;
@@ -23,53 +34,95 @@ import org.slf4j.LoggerFactory;
 public class ArtifactTask implements Callable<Void> {
 
     /**
-     * The result containing the model artifact and optionally the artifact itself.
+     * The immutable result containing the coordinates, the resolved model artifact and optionally the resolved artifact itself.
+     * <p>
+     * Only the values required for scanning are retained, i.e. neither the {@link ArtifactInfo} nor the {@link ArtifactResult}s are
+     * referenced. The {@link Model} built by the fetch thread is the exception, i.e. the memory held by the queue grows with its capacity
+     * times the size of a model.
      */
-    public static class Result {
+    public static final class Result {
 
         /**
          * Marker indicating that no more results are available.
          */
-        public static final Result LAST = new Result(null, null, null);
+        public static final Result LAST = new Result(null, 0, null, null, null, null);
 
-        private final ArtifactInfo artifactInfo;
+        private final Coordinates coordinates;
 
-        private final Optional<ArtifactResult> modelArtifactResult;
+        private final long lastModified;
 
-        private final Optional<ArtifactResult> artifactResult;
+        private final Artifact modelArtifact;
+
+        private final Model model;
+
+        private final Artifact artifact;
+
+        private final String sha1;
 
         /**
          * Represents the result of resolving an artifact and its model based on an
          * {@link ArtifactInfo}.
          *
-         * @param artifactInfo
-         *     The {@link ArtifactInfo}.
-         * @param modelArtifactResult
-         *     The {@link ArtifactResult} of the model.
-         * @param artifactResult
-         *     The {@link ArtifactResult} of the artifact.
+         * @param coordinates
+         *     The {@link Coordinates} of the {@link ArtifactInfo}, the type represents the packaging.
+         * @param lastModified
+         *     The last modified timestamp of the {@link ArtifactInfo}.
+         * @param modelArtifact
+         *     The resolved model {@link Artifact} or <code>null</code>.
+         * @param model
+         *     The {@link Model} built from the model {@link Artifact} or <code>null</code> if it has not been built.
+         * @param artifact
+         *     The resolved {@link Artifact} or <code>null</code>.
+         * @param sha1
+         *     The SHA-1 checksum of the artifact or <code>null</code> if it is unknown.
          */
-        private Result(ArtifactInfo artifactInfo, Optional<ArtifactResult> modelArtifactResult, Optional<ArtifactResult> artifactResult) {
-            this.artifactInfo = artifactInfo;
-            this.modelArtifactResult = modelArtifactResult;
-            this.artifactResult = artifactResult;
+        private Result(Coordinates coordinates, long lastModified, Artifact modelArtifact, Model model, Artifact artifact, String sha1) {
+            this.coordinates = coordinates;
+            this.lastModified = lastModified;
+            this.modelArtifact = modelArtifact;
+            this.model = model;
+            this.artifact = artifact;
+            this.sha1 = sha1;
+        }
+
+        public Coordinates getCoordinates() {
+            return coordinates;
+        }
+
+        public long getLastModified() {
+            return lastModified;
         }
 
-        public ArtifactInfo getArtifactInfo() {
-            return artifactInfo;
+        public Optional<Artifact> getModelArtifact() {
+            return Optional.ofNullable(modelArtifact);
         }
 
-        public Optional<ArtifactResult> getModelArtifactResult() {
-            return modelArtifactResult;
+        public Optional<Model> getModel() {
+            return Optional.ofNullable(model);
         }
 
-        public Optional<ArtifactResult> getArtifactResult() {
-            return artifactResult;
+        public Optional<Artifact> getArtifact() {
+            return Optional.ofNullable(artifact);
+        }
+
+        public Optional<String> getSha1() {
+            return Optional.ofNullable(sha1);
         }
     }
 
     private static final String EXTENSION_POM = "pom";
 
+    private static final int PARTITION_QUEUE_CAPACITY = 100;
+
+    private static final long DISPATCH_TIMEOUT_MILLIS = 1000;
+
+    private static final long MAXIMUM_BUILT_MODELS = 65536;
+
+    /**
+     * Marker indicating that no more {@link ArtifactInfo}s are available for a partition.
+     */
+    private static final ArtifactInfo LAST_ARTIFACT_INFO = new ArtifactInfo();
+
     private static final Logger LOGGER = LoggerFactory.getLogger(ArtifactTask.class);
 
     private final ArtifactSearchResult artifactSearchResult;
@@ -78,10 +131,29 @@ public class ArtifactTask implements Callable<Void> {
 
     private final boolean fetchArtifact;
 
+    private final ArtifactSelector artifactSelector;
+
     private final BlockingQueue<Result> queue;
 
     private final ArtifactProvider artifactProvider;
 
+    private final int fetchThreads;
+
+    private final CoordinatePool coordinatePool;
+
+    private final PomModelBuilder modelBuilder;
+
+    private final CompletedArtifacts completedArtifacts;
+
+    private final ScanMetrics metrics;
+
+    /**
+     * The ids of the models which have already been built, used to build each model only once per scan.
+     */
+    private final Cache<String, Boolean> builtModels = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_BUILT_MODELS)
+        .build();
+
     /**
      * Constructor.
      *
@@ -92,18 +164,37 @@ public class ArtifactTask implements Callable<Void> {
      * @param fetchArtifact
      *     if <code>true</code> the {@link Artifact} will be fetched,
      *     otherwise only the model {@link Artifact} (i.e. pom).
+     * @param artifactSelector
+     *     The {@link ArtifactSelector} determining the {@link Artifact}s to fetch if <code>fetchArtifact</code> is <code>true</code>.
      * @param queue
      *     The {@link BlockingQueue} for publishing the {@link Result}s.
      * @param artifactProvider
      *     The {@link ArtifactProvider} for fetching the {@link Artifact}s.
+     * @param fetchThreads
+     *     The number of threads fetching {@link Artifact}s, if greater than 1 the {@link ArtifactInfo}s are partitioned by their groupId.
+     * @param coordinatePool
+     *     The {@link CoordinatePool} providing canonical coordinate values.
+     * @param modelBuilder
+     *     The {@link PomModelBuilder} for building the {@link Model}s of fetched model {@link Artifact}s.
+     * @param completedArtifacts
+     *     The {@link CompletedArtifacts} of an interrupted scan which shall not be fetched again.
+     * @param metrics
+     *     The {@link ScanMetrics}.
      */
-    ArtifactTask(ArtifactSearchResult artifactSearchResult, ArtifactFilter artifactFilter, boolean fetchArtifact, BlockingQueue<Result> queue,
-        ArtifactProvider artifactProvider) {
+    ArtifactTask(ArtifactSearchResult artifactSearchResult, ArtifactFilter artifactFilter, boolean fetchArtifact, ArtifactSelector artifactSelector,
+        BlockingQueue<Result> queue, ArtifactProvider artifactProvider, int fetchThreads, CoordinatePool coordinatePool, PomModelBuilder modelBuilder,
+        CompletedArtifacts completedArtifacts, ScanMetrics metrics) {
         this.artifactSearchResult = artifactSearchResult;
         this.artifactFilter = artifactFilter;
         this.fetchArtifact = fetchArtifact;
+        this.artifactSelector = artifactSelector;
         this.queue = queue;
         this.artifactProvider = artifactProvider;
+        this.fetchThreads = fetchThreads;
+        this.coordinatePool = coordinatePool;
+        this.modelBuilder = modelBuilder;
+        this.completedArtifacts = completedArtifacts;
+        this.metrics = metrics;
     }
 
     @Override
@@ -120,46 +211,351 @@ public class ArtifactTask implements Callable<Void> {
 
     private void processArtifactSearchResult() throws InterruptedException {
         try {
-            for (ArtifactInfo artifactInfo : artifactSearchResult) {
-                String groupId = artifactInfo.getGroupId();
-                String artifactId = artifactInfo.getArtifactId();
-                String classifier = artifactInfo.getClassifier();
-                String fileExtension = artifactInfo.getFileExtension();
-                String packaging = artifactInfo.getPackaging();
-                String version = artifactInfo.getVersion();
-                if (!artifactFilter.match(RepositoryUtils.toArtifact(new DefaultArtifact(groupId, artifactId, classifier, packaging, version)))) {
-                    LOGGER.debug("Skipping '{}'.", artifactInfo);
-                } else {
-                    Artifact modelArtifact = new DefaultArtifact(groupId, artifactId, null, EXTENSION_POM, version);
-                    Optional<ArtifactResult> modelArtifactResult = getArtifact(modelArtifact);
-                    Optional<ArtifactResult> artifactResult;
-                    if (fetchArtifact && !packaging.equals(EXTENSION_POM)) {
-                        DefaultArtifact downloadableArtifact = new DefaultArtifact(groupId, artifactId, classifier, fileExtension, version);
-                        artifactResult = getArtifact(downloadableArtifact);
-                    } else {
-                        artifactResult = Optional.empty();
+            if (fetchThreads > 1) {
+                processPartitioned();
+            } else {
+                Iterator<ArtifactInfo> iterator = artifactSearchResult.iterator();
+                ArtifactInfo artifactInfo;
+                while ((artifactInfo = next(iterator)) != null) {
+                    if (matches(artifactInfo)) {
+                        queue.put(fetch(artifactInfo));
                     }
-                    Result result = new Result(artifactInfo, modelArtifactResult, artifactResult);
-                    queue.put(result);
                 }
             }
+        } catch (InterruptedException e) {
+            // The consumer has stopped taking results (e.g. due to a failure) and shut down the task.
+            LOGGER.warn("Artifact task has been interrupted.", e);
+            Thread.currentThread()
+                .interrupt();
         } catch (Throwable e) {
             // Catching any errors for logging. Note that errors are not propagated as uncaught exceptions.
             LOGGER.error("Artifact task failed.", e);
         } finally {
-            queue.put(Result.LAST);
+            if (Thread.currentThread()
+                .isInterrupted()) {
+                // Do not block if the consumer does not take any more results.
+                queue.offer(Result.LAST);
+            } else {
+                queue.put(Result.LAST);
+            }
         }
     }
 
-    private Optional<ArtifactResult> getArtifact(Artifact artifact) {
-        LOGGER.info("Fetching artifact '{}'.", artifact);
+    /**
+     * Distributes the matching {@link ArtifactInfo}s by the hash of their groupId to partitions which are fetched concurrently. The
+     * {@link Result}s of a partition are published in the order of the {@link ArtifactSearchResult}.
+     * <p>
+     * The fetch threads are shut down in any case, i.e. fetch threads blocked by a consumer which does not take any more results are
+     * interrupted. If a fetch thread terminates unexpectedly, dispatching to its partition fails instead of blocking.
+     *
+     * @throws InterruptedException
+     *     If the thread has been interrupted.
+     * @throws ExecutionException
+     *     If fetching a partition failed.
+     */
+    private void processPartitioned() throws InterruptedException, ExecutionException {
+        ExecutorService pool = Executors.newFixedThreadPool(fetchThreads, r -> {
+            Thread thread = new Thread(r, ArtifactTask.class.getSimpleName() + "-Fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
         try {
-            return Optional.of(this.artifactProvider.getArtifact(artifact));
-        } catch (ArtifactResolutionException e) {
-            LOGGER.warn("Cannot resolve artifact '" + artifact + "'.", e);
-            LOGGER.debug("Reason", e);
+            List<BlockingQueue<ArtifactInfo>> partitions = new ArrayList<>(fetchThreads);
+            List<Future<?>> futures = new ArrayList<>(fetchThreads);
+            for (int i = 0; i < fetchThreads; i++) {
+                BlockingQueue<ArtifactInfo> partition = new LinkedBlockingQueue<>(PARTITION_QUEUE_CAPACITY);
+                partitions.add(partition);
+                futures.add(pool.submit(() -> fetchPartition(partition)));
+            }
+            RuntimeException failure = null;
+            try {
+                Iterator<ArtifactInfo> iterator = artifactSearchResult.iterator();
+                ArtifactInfo artifactInfo;
+                while ((artifactInfo = next(iterator)) != null) {
+                    if (matches(artifactInfo)) {
+                        int partition = Math.floorMod(artifactInfo.getGroupId()
+                            .hashCode(), fetchThreads);
+                        dispatch(artifactInfo, partitions.get(partition), futures.get(partition));
+                    }
+                }
+            } catch (RuntimeException e) {
+                // Let the fetch threads complete the artifacts which have already been dispatched.
+                failure = e;
+            }
+            for (int i = 0; i < fetchThreads; i++) {
+                dispatch(LAST_ARTIFACT_INFO, partitions.get(i), futures.get(i));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds an {@link ArtifactInfo} to a partition, waiting while the partition is full as long as its fetch thread is running.
+     *
+     * @param artifactInfo
+     *     The {@link ArtifactInfo}.
+     * @param partition
+     *     The partition.
+     * @param future
+     *     The {@link Future} of the fetch thread consuming the partition.
+     * @throws InterruptedException
+     *     If the thread has been interrupted.
+     * @throws ExecutionException
+     *     If the fetch thread has failed.
+     */
+    private static void dispatch(ArtifactInfo artifactInfo, BlockingQueue<ArtifactInfo> partition, Future<?> future)
+        throws InterruptedException, ExecutionException {
+        while (!partition.offer(artifactInfo, DISPATCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (future.isDone()) {
+                future.get();
+                throw new IllegalStateException("Fetch thread terminated before the end of its partition.");
+            }
+        }
+    }
+
+    /**
+     * Reads the next {@link ArtifactInfo} from the given {@link Iterator} over the {@link ArtifactSearchResult} and records the time spent for
+     * reading the index. Reaching the end of the {@link ArtifactSearchResult} is recorded as completion of the index.
+     *
+     * @param iterator
+     *     The {@link Iterator}.
+     * @return The next {@link ArtifactInfo} or <code>null</code> if no more {@link ArtifactInfo}s are available.
+     */
+    private ArtifactInfo next(Iterator<ArtifactInfo> iterator) {
+        long start = System.nanoTime();
+        if (!iterator.hasNext()) {
+            metrics.indexCompleted();
+            return null;
+        }
+        ArtifactInfo artifactInfo = iterator.next();
+        metrics.indexIteration()
+            .record(start);
+        return artifactInfo;
+    }
+
+    private Void fetchPartition(BlockingQueue<ArtifactInfo> partition) throws InterruptedException {
+        ArtifactInfo artifactInfo;
+        while ((artifactInfo = partition.take()) != LAST_ARTIFACT_INFO) {
+            try {
+                queue.put(fetch(artifactInfo));
+            } catch (RuntimeException e) {
+                // Keep on consuming the partition, otherwise the dispatching thread would be blocked.
+                LOGGER.error("Cannot fetch '" + artifactInfo + "'.", e);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Determines if the given {@link ArtifactInfo} matches the {@link ArtifactFilter}.
+     *
+     * @param artifactInfo
+     *     The {@link ArtifactInfo}.
+     * @return <code>true</code> if the {@link ArtifactInfo} shall be processed.
+     */
+    private boolean matches(ArtifactInfo artifactInfo) {
+        if (artifactFilter.match(RepositoryUtils.toArtifact(
+            new DefaultArtifact(artifactInfo.getGroupId(), artifactInfo.getArtifactId(), artifactInfo.getClassifier(), artifactInfo.getPackaging(),
+                artifactInfo.getVersion()))) && !isCompleted(artifactInfo)) {
+            metrics.filterAccepted();
+            return true;
+        }
+        LOGGER.debug("Skipping '{}'.", artifactInfo);
+        metrics.filterRejected();
+        return false;
+    }
+
+    /**
+     * Determines if the given {@link ArtifactInfo} has been completed by an interrupted scan.
+     *
+     * @param artifactInfo
+     *     The {@link ArtifactInfo}.
+     * @return <code>true</code> if the {@link ArtifactInfo} has been completed.
+     */
+    private boolean isCompleted(ArtifactInfo artifactInfo) {
+        return completedArtifacts.size() > 0 && completedArtifacts.contains(
+            coordinatePool.getId(new ArtifactInfoCoordinates(artifactInfo, coordinatePool)));
+    }
+
+    /**
+     * Fetches the model and (if required) the artifact for the given {@link ArtifactInfo}. The {@link Model} is built if it has not been built
+     * before during this scan.
+     * <p>
+     * The artifact is requested before the model, i.e. it is downloaded while the model is fetched and built (if supported by the
+     * {@link ArtifactProvider}).
+     *
+     * @param artifactInfo
+     *     The {@link ArtifactInfo}.
+     * @return The {@link Result}.
+     */
+    private Result fetch(ArtifactInfo artifactInfo) {
+        ArtifactInfoCoordinates coordinates = new ArtifactInfoCoordinates(artifactInfo, coordinatePool);
+        String groupId = coordinates.getGroup();
+        String artifactId = coordinates.getName();
+        String packaging = coordinates.getType();
+        String version = coordinates.getVersion();
+        PendingArtifact pendingArtifact;
+        if (fetchArtifact && !packaging.equals(EXTENSION_POM) && select(artifactInfo)) {
+            pendingArtifact = getArtifactAsync(new DefaultArtifact(groupId, artifactId, coordinates.getClassifier(),
+                coordinatePool.canonical(artifactInfo.getFileExtension()), version));
+        } else {
+            pendingArtifact = null;
+        }
+        Artifact modelArtifact = getArtifact(new DefaultArtifact(groupId, artifactId, null, EXTENSION_POM, version));
+        Model model = modelArtifact != null ? getModel(modelArtifact) : null;
+        Artifact artifact = pendingArtifact != null ? pendingArtifact.join() : null;
+        String sha1 = artifactInfo.getSha1();
+        if (sha1 == null && artifact != null) {
+            sha1 = getSha1(artifact);
+        }
+        return new Result(coordinates, artifactInfo.getLastModified(), modelArtifact, model, artifact, sha1);
+    }
+
+    /**
+     * Determines if the artifact represented by the given {@link ArtifactInfo} is selected for fetching by the {@link ArtifactSelector}.
+     *
+     * @param artifactInfo
+     *     The {@link ArtifactInfo}.
+     * @return <code>true</code> if the artifact shall be fetched.
+     */
+    private boolean select(ArtifactInfo artifactInfo) {
+        if (artifactSelector.select(artifactInfo.getClassifier(), artifactInfo.getFileExtension(), artifactInfo.getSize())) {
+            return true;
+        }
+        LOGGER.debug("Not fetching '{}' (size: {}).", artifactInfo, artifactInfo.getSize());
+        return false;
+    }
+
+    /**
+     * Builds the {@link Model} for the given model {@link Artifact}.
+     *
+     * @param modelArtifact
+     *     The resolved model {@link Artifact}.
+     * @return The {@link Model} or <code>null</code> if it has already been built during this scan or cannot be built.
+     */
+    private Model getModel(Artifact modelArtifact) {
+        String id = coordinatePool.getId(new AetherArtifactCoordinates(modelArtifact));
+        if (builtModels.asMap()
+            .putIfAbsent(id, Boolean.TRUE) == null) {
+            LOGGER.debug("Building model '{}'.", modelArtifact);
+            long start = System.nanoTime();
+            try {
+                return modelBuilder.getModel(modelArtifact.getFile());
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Cannot build model for '" + modelArtifact + "'.", e);
+            } finally {
+                metrics.modelBuild()
+                    .record(start, modelArtifact);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Calculates the SHA-1 checksum of a resolved {@link Artifact} which is not provided by the index.
+     *
+     * @param artifact
+     *     The resolved {@link Artifact}.
+     * @return The SHA-1 checksum or <code>null</code> if it cannot be calculated.
+     */
+    private String getSha1(Artifact artifact) {
+        try (InputStream inputStream = new FileInputStream(artifact.getFile())) {
+            return DigestUtils.sha1Hex(inputStream);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot calculate SHA-1 checksum of '" + artifact + "'.", e);
+        }
+        return null;
+    }
+
+    /**
+     * Fetches the given {@link Artifact}.
+     *
+     * @param artifact
+     *     The {@link Artifact}.
+     * @return The resolved {@link Artifact} providing the local file or <code>null</code> if it cannot be resolved.
+     */
+    private Artifact getArtifact(Artifact artifact) {
+        return getArtifactAsync(artifact).join();
+    }
+
+    /**
+     * Fetches the given {@link Artifact} asynchronously.
+     *
+     * @param artifact
+     *     The {@link Artifact}.
+     * @return The {@link PendingArtifact}.
+     */
+    private PendingArtifact getArtifactAsync(Artifact artifact) {
+        LOGGER.info("Fetching artifact '{}'.", artifact);
+        ScanEvents.FetchArtifact event = new ScanEvents.FetchArtifact();
+        event.begin();
+        long start = System.nanoTime();
+        return new PendingArtifact(artifact, artifactProvider.getArtifactAsync(artifact), event, start);
+    }
+
+    /**
+     * An {@link Artifact} which is being fetched.
+     * <p>
+     * The fetch is recorded by the fetch thread joining it, i.e. neither the metrics nor the {@link ScanEvents.FetchArtifact} event are
+     * touched by the threads of the {@link ArtifactProvider}.
+     */
+    private final class PendingArtifact {
+
+        private final Artifact artifact;
+
+        private final CompletableFuture<ArtifactResult> artifactResult;
+
+        private final ScanEvents.FetchArtifact event;
+
+        private final long start;
+
+        private PendingArtifact(Artifact artifact, CompletableFuture<ArtifactResult> artifactResult, ScanEvents.FetchArtifact event,
+            long start) {
+            this.artifact = artifact;
+            this.artifactResult = artifactResult;
+            this.event = event;
+            this.start = start;
+        }
+
+        /**
+         * Waits for the fetch to complete and records it.
+         *
+         * @return The resolved {@link Artifact} or <code>null</code> if it cannot be resolved.
+         */
+        private Artifact join() {
+            Artifact resolvedArtifact = null;
+            long bytes = 0;
+            String outcome = ScanEvents.OUTCOME_FAILURE;
+            try {
+                resolvedArtifact = artifactResult.join()
+                    .getArtifact();
+                bytes = resolvedArtifact.getFile()
+                    .length();
+                metrics.bytesFetched(bytes);
+                outcome = ScanEvents.OUTCOME_SUCCESS;
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                LOGGER.warn("Cannot resolve artifact '" + artifact + "'.", cause);
+                metrics.fetchFailed();
+            }
+            ScanMetrics.Stage stage = EXTENSION_POM.equals(artifact.getExtension()) ? metrics.pomFetch() : metrics.artifactFetch();
+            stage.record(start, artifact);
+            event.end();
+            if (event.shouldCommit()) {
+                event.coordinates = artifact.toString();
+                event.bytes = bytes;
+                event.outcome = outcome;
+                event.commit();
+            }
+            return resolvedArtifact;
         }
-        return Optional.empty();
     }
 
 }
@@ -0,0 +1,71 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.apache.maven.model.building.ModelCache;
+
+/**
+ * A bounded {@link ModelCache} which is shared by all model building requests of a scan.
+ * <p>
+ * The {@link org.apache.maven.model.building.DefaultModelBuilder} uses it for raw parent models resolved from the repository and for
+ * imported dependency management (i.e. BOMs), so these are read, parsed and interpolated only once.
+ */
+class BoundedModelCache implements ModelCache {
+
+    private final Cache<Key, Object> cache;
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize
+     *     The maximum number of cached entries.
+     */
+    BoundedModelCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public void put(String groupId, String artifactId, String version, String tag, Object data) {
+        cache.put(new Key(groupId, artifactId, version, tag), data);
+    }
+
+    @Override
+    public Object get(String groupId, String artifactId, String version, String tag) {
+        return cache.getIfPresent(new Key(groupId, artifactId, version, tag));
+    }
+
+    /**
+     * Return the {@link CacheStats}.
+     *
+     * @return The {@link CacheStats}.
+     */
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * The key of a cached entry.
+     */
+    @EqualsAndHashCode
+    @ToString
+    private static final class Key {
+
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String tag;
+
+        private Key(String groupId, String artifactId, String version, String tag) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.tag = tag;
+        }
+    }
+}
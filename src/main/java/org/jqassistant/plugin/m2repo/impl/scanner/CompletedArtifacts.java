@@ -0,0 +1,88 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.Arrays;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * The fully qualified names of the models and artifacts which have been committed by an interrupted scan.
+ * <p>
+ * The names are held as sorted 64 bit fingerprints (i.e. 8 bytes per name) instead of a set of strings, as an interrupted scan of a large
+ * repository may have committed millions of them. Two names share a fingerprint with a probability of about n²/2^65 (e.g. 3*10^-6 for ten
+ * million names), in this case one of them is skipped by the resumed scan although it has not been committed.
+ */
+final class CompletedArtifacts {
+
+    /**
+     * The {@link CompletedArtifacts} of a scan which does not resume an interrupted scan.
+     */
+    static final CompletedArtifacts NONE = new CompletedArtifacts(new long[0]);
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final long[] fingerprints;
+
+    private CompletedArtifacts(long[] fingerprints) {
+        this.fingerprints = fingerprints;
+    }
+
+    /**
+     * Return the number of completed models and artifacts.
+     *
+     * @return The number.
+     */
+    int size() {
+        return fingerprints.length;
+    }
+
+    /**
+     * Determines if the model or artifact with the given fully qualified name has been completed.
+     *
+     * @param fqn
+     *     The fully qualified name.
+     * @return <code>true</code> if the model or artifact has been completed.
+     */
+    boolean contains(String fqn) {
+        return fingerprints.length > 0 && Arrays.binarySearch(fingerprints, fingerprint(fqn)) >= 0;
+    }
+
+    private static long fingerprint(String fqn) {
+        byte[] digest = DigestUtils.sha1(fqn);
+        long fingerprint = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            fingerprint = (fingerprint << 8) | (digest[i] & 0xff);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Collects the fully qualified names of the completed models and artifacts.
+     */
+    static final class Builder {
+
+        private long[] fingerprints = new long[INITIAL_CAPACITY];
+
+        private int size;
+
+        /**
+         * Adds a completed model or artifact.
+         *
+         * @param fqn
+         *     The fully qualified name.
+         * @return The {@link Builder}.
+         */
+        Builder add(String fqn) {
+            if (size == fingerprints.length) {
+                fingerprints = Arrays.copyOf(fingerprints, size * 2);
+            }
+            fingerprints[size++] = fingerprint(fqn);
+            return this;
+        }
+
+        CompletedArtifacts build() {
+            long[] sortedFingerprints = Arrays.copyOf(fingerprints, size);
+            Arrays.sort(sortedFingerprints);
+            return new CompletedArtifacts(sortedFingerprints);
+        }
+    }
+}
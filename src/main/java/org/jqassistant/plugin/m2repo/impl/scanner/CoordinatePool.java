@@ -0,0 +1,75 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.Coordinates;
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.MavenArtifactHelper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A scan-scoped pool providing canonical instances of coordinate values (i.e. groupId, artifactId, version, classifier and type) and the
+ * fully qualified names derived from them.
+ * <p>
+ * Equal values which are read from the index or derived from it share a single instance instead of holding their own copies. The pool is
+ * bounded, a value which has been evicted is simply added again.
+ */
+class CoordinatePool {
+
+    private static final long MAXIMUM_VALUES = 65536;
+
+    private static final long MAXIMUM_IDS = 65536;
+
+    private final Cache<String, String> values = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_VALUES)
+        .build();
+
+    private final Cache<Key, String> ids = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_IDS)
+        .build();
+
+    /**
+     * Return the canonical instance of the given value.
+     *
+     * @param value
+     *     The value, may be <code>null</code>.
+     * @return The canonical instance.
+     */
+    String canonical(String value) {
+        return value != null ? values.get(value, v -> v) : null;
+    }
+
+    /**
+     * Return the fully qualified name of the given {@link Coordinates} as determined by {@link MavenArtifactHelper#getId(Coordinates)}.
+     *
+     * @param coordinates
+     *     The {@link Coordinates}.
+     * @return The fully qualified name.
+     */
+    String getId(Coordinates coordinates) {
+        Key key = new Key(coordinates.getGroup(), coordinates.getName(), coordinates.getClassifier(), coordinates.getType(),
+            coordinates.getVersion());
+        return ids.get(key, k -> MavenArtifactHelper.getId(coordinates));
+    }
+
+    /**
+     * The key of a fully qualified name.
+     */
+    @EqualsAndHashCode
+    private static final class Key {
+
+        private final String group;
+        private final String name;
+        private final String classifier;
+        private final String type;
+        private final String version;
+
+        private Key(String group, String name, String classifier, String type, String version) {
+            this.group = group;
+            this.name = name;
+            this.classifier = classifier;
+            this.type = type;
+            this.version = version;
+        }
+    }
+}
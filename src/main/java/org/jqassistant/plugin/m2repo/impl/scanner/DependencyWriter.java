@@ -0,0 +1,84 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.plugin.common.api.model.DependsOnDescriptor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Buffers {@link DependsOnDescriptor} relations between artifacts and writes them in batches using a single parameterized statement per
+ * batch.
+ */
+class DependencyWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DependencyWriter.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String CREATE_DEPENDS_ON = "UNWIND $dependencies AS row " //
+        + "MATCH (dependent) WHERE id(dependent) = row.dependent " //
+        + "MATCH (dependency) WHERE id(dependency) = row.dependency " //
+        + "CREATE (dependent)-[:DEPENDS_ON{scope:row.scope, optional:row.optional}]->(dependency) " //
+        + "RETURN count(*) AS dependencies";
+
+    private final Store store;
+
+    private final List<Map<String, Object>> dependencies = new ArrayList<>(BATCH_SIZE);
+
+    /**
+     * Constructor.
+     *
+     * @param store
+     *     The {@link Store}.
+     */
+    DependencyWriter(Store store) {
+        this.store = store;
+    }
+
+    /**
+     * Adds a {@link DependsOnDescriptor} relation to the batch, the batch is written if it is full.
+     *
+     * @param dependent
+     *     The dependent {@link Descriptor}.
+     * @param dependency
+     *     The dependency {@link Descriptor}.
+     * @param scope
+     *     The scope.
+     * @param optional
+     *     The optional flag.
+     */
+    void add(Descriptor dependent, Descriptor dependency, String scope, Boolean optional) {
+        Map<String, Object> row = new HashMap<>(4);
+        row.put("dependent", dependent.getId());
+        row.put("dependency", dependency.getId());
+        row.put("scope", scope);
+        row.put("optional", optional);
+        dependencies.add(row);
+        if (dependencies.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes all buffered relations to the {@link Store}.
+     */
+    void flush() {
+        if (!dependencies.isEmpty()) {
+            Map<String, Object> parameters = new HashMap<>(1);
+            parameters.put("dependencies", new ArrayList<>(dependencies));
+            // consuming the single result row forces the statement to be executed completely
+            Long count = store.executeQuery(CREATE_DEPENDS_ON, parameters)
+                .getSingleResult()
+                .get("dependencies", Long.class);
+            LOGGER.debug("Created {} dependencies.", count);
+            dependencies.clear();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+import com.buschmais.jqassistant.core.store.api.model.Descriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.jqassistant.plugin.m2repo.api.model.ArtifactInfoDescriptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Remembers the descriptors of artifacts whose content has been scanned by their SHA-1 checksums and links byte-identical artifacts (e.g.
+ * relocations or re-released snapshots) to the already scanned content instead of scanning it again.
+ */
+class DuplicateArtifactLinker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DuplicateArtifactLinker.class);
+
+    private static final long MAXIMUM_ARTIFACTS = 65536;
+
+    /**
+     * Copies the content properties of the original which are not set on the duplicate, sets the file name of the duplicate and creates the
+     * <code>CONTAINS</code> and <code>REQUIRES</code> relations, returning the number of created relations.
+     * <p>
+     * The properties identifying the artifact are reset to the values of the duplicate, i.e. properties it does not have (e.g. the classifier
+     * of an unclassified duplicate of a classified original) are removed again.
+     */
+    private static final String LINK_CONTENT = "MATCH (original) WHERE id(original) = $original " //
+        + "MATCH (duplicate) WHERE id(duplicate) = $duplicate " //
+        + "WITH original, duplicate, properties(duplicate) AS own " //
+        + "SET duplicate += properties(original), duplicate += own, duplicate.fileName = $fileName " //
+        + "SET duplicate.fqn = own.fqn, duplicate.group = own.group, duplicate.name = own.name, duplicate.version = own.version, " //
+        + "duplicate.classifier = own.classifier, duplicate.type = own.type, duplicate.sha1 = own.sha1, " //
+        + "duplicate.lastModified = own.lastModified " //
+        + "WITH original, duplicate " //
+        + "OPTIONAL MATCH (original)-[:CONTAINS]->(file) " //
+        + "FOREACH (f IN CASE WHEN file IS NULL THEN [] ELSE [file] END | CREATE (duplicate)-[:CONTAINS]->(f)) " //
+        + "WITH original, duplicate, count(file) AS contains " //
+        + "OPTIONAL MATCH (original)-[:REQUIRES]->(type) " //
+        + "FOREACH (t IN CASE WHEN type IS NULL THEN [] ELSE [type] END | CREATE (duplicate)-[:REQUIRES]->(t)) " //
+        + "RETURN contains + count(type) AS relations";
+
+    private final Store store;
+
+    private final Cache<String, Descriptor> scannedArtifacts = Caffeine.newBuilder()
+        .maximumSize(MAXIMUM_ARTIFACTS)
+        .build();
+
+    private long linkedArtifacts;
+
+    /**
+     * Constructor.
+     *
+     * @param store
+     *     The {@link Store}.
+     */
+    DuplicateArtifactLinker(Store store) {
+        this.store = store;
+    }
+
+    /**
+     * Return the descriptor of an artifact with the given SHA-1 checksum which has already been scanned.
+     *
+     * @param sha1
+     *     The SHA-1 checksum.
+     * @return The scanned {@link Descriptor}.
+     */
+    Optional<Descriptor> find(String sha1) {
+        return Optional.ofNullable(scannedArtifacts.getIfPresent(sha1));
+    }
+
+    /**
+     * Registers the descriptor of a scanned artifact.
+     *
+     * @param sha1
+     *     The SHA-1 checksum of the artifact.
+     * @param descriptor
+     *     The {@link Descriptor}.
+     */
+    void register(String sha1, Descriptor descriptor) {
+        scannedArtifacts.put(sha1, descriptor);
+    }
+
+    /**
+     * Links a duplicate artifact to the content of the original artifact, i.e. the descriptor types and the properties of the original
+     * (e.g. determined by the scanner plugins) are added to the duplicate and its <code>CONTAINS</code> and <code>REQUIRES</code> relations
+     * are copied. Properties which are already set on the duplicate are kept, the coordinates, the fully qualified name and the checksum of
+     * the duplicate are never taken from the original.
+     *
+     * @param original
+     *     The {@link Descriptor} of the scanned original artifact.
+     * @param duplicate
+     *     The {@link MavenArtifactDescriptor} of the duplicate artifact.
+     * @param fileName
+     *     The file name of the duplicate artifact.
+     * @return The {@link MavenArtifactDescriptor} of the duplicate artifact.
+     */
+    MavenArtifactDescriptor link(Descriptor original, MavenArtifactDescriptor duplicate, String fileName) {
+        Descriptor descriptor = duplicate;
+        for (Class<?> type : original.getClass()
+            .getInterfaces()) {
+            if (Descriptor.class.isAssignableFrom(type) && !ArtifactInfoDescriptor.class.isAssignableFrom(type) && !type.isInstance(descriptor)) {
+                descriptor = store.addDescriptorType(descriptor, type.asSubclass(Descriptor.class));
+            }
+        }
+        Map<String, Object> parameters = new HashMap<>(4);
+        parameters.put("original", original.getId());
+        parameters.put("duplicate", descriptor.getId());
+        parameters.put("fileName", fileName);
+        Long relations = store.executeQuery(LINK_CONTENT, parameters)
+            .getSingleResult()
+            .get("relations", Long.class);
+        LOGGER.debug("Linked {} relations of {} to {}.", relations, original, descriptor);
+        linkedArtifacts++;
+        return store.addDescriptorType(descriptor, MavenArtifactDescriptor.class);
+    }
+
+    /**
+     * Return the number of artifacts which have been linked instead of being scanned.
+     *
+     * @return The number of linked artifacts.
+     */
+    long getLinkedArtifacts() {
+        return linkedArtifacts;
+    }
+}
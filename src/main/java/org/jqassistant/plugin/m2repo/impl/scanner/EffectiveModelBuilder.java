@@ -1,15 +1,40 @@
 package org.jqassistant.plugin.m2repo.impl.scanner;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.EffectiveModel;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.PomModelBuilder;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.RawModelBuilder;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+
 import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.model.Repository;
@@ -32,8 +57,26 @@ public class EffectiveModelBuilder implements PomModelBuilder {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EffectiveModelBuilder.class);
 
+    private static final int MAXIMUM_PARENT_DEPTH = 32;
+
+    private static final String SCOPE_IMPORT = "import";
+
+    /**
+     * The system properties which affect the activation of profiles and the interpolation of effective models.
+     */
+    private static final String[] ENVIRONMENT_PROPERTIES = { "java.version", "os.name", "os.arch", "os.version" };
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
+    private static final String OUTCOME_CACHED = "cached";
+    private static final String OUTCOME_RAW = "raw";
+
     private final ModelResolverImpl modelResolver;
     private final RawModelBuilder rawModelBuilder;
+    private final BoundedModelCache modelCache;
+    private final PersistentModelCache persistentModelCache;
+    private final Cache<String, String> parentChecksums;
+    private final String environmentChecksum = getEnvironmentChecksum();
     private final DefaultModelBuilder builder = new DefaultModelBuilderFactory().newInstance();
 
     /**
@@ -41,29 +84,260 @@ public class EffectiveModelBuilder implements PomModelBuilder {
      *
      * @param artifactProvider
      *            The artifact provider.
+     * @param modelCacheSize
+     *            The maximum number of parent models and imported dependency management sections shared between model building requests.
+     * @param persistentModelCacheDirectory
+     *            The directory for persisting built effective models, <code>null</code> if they shall not be persisted.
+     * @param persistentModelExpiry
+     *            The duration after the last use when a persisted effective model is removed.
      */
-    public EffectiveModelBuilder(ArtifactProvider artifactProvider) {
+    public EffectiveModelBuilder(ArtifactProvider artifactProvider, long modelCacheSize, File persistentModelCacheDirectory,
+        Duration persistentModelExpiry) {
         this.modelResolver = new ModelResolverImpl(artifactProvider);
         this.rawModelBuilder = new RawModelBuilder();
+        this.modelCache = new BoundedModelCache(modelCacheSize);
+        this.persistentModelCache = persistentModelCacheDirectory != null ? new PersistentModelCache(persistentModelCacheDirectory,
+            persistentModelExpiry) : null;
+        this.parentChecksums = Caffeine.newBuilder()
+            .maximumSize(modelCacheSize)
+            .build();
+        this.builder.setModelValidator(new ModelValidatorImpl());
+    }
+
+    /**
+     * Return the {@link CacheStats} of the model cache shared between model building requests.
+     *
+     * @return The {@link CacheStats}.
+     */
+    public CacheStats getModelCacheStats() {
+        return modelCache.stats();
+    }
+
+    /**
+     * Deletes the files of all parent models and imported dependency management sections (BOMs) which have been resolved while building
+     * models, used if downloaded artifacts shall not be kept.
+     * <p>
+     * Must not be called while models are being built.
+     */
+    public void deleteResolvedModels() {
+        int deleted = 0;
+        for (File file : modelResolver.resolvedModels) {
+            if (file.delete()) {
+                deleted++;
+            }
+        }
+        modelResolver.resolvedModels.clear();
+        LOGGER.debug("Deleted {} resolved models.", deleted);
     }
 
     @Override
     public Model getModel(File pomFile) throws IOException {
+        ScanEvents.BuildModel event = new ScanEvents.BuildModel();
+        event.begin();
+        String outcome = ScanEvents.OUTCOME_FAILURE;
+        try {
+            Optional<String> key = persistentModelCache != null ? getPersistentModelCacheKey(pomFile) : Optional.empty();
+            Optional<Model> effectiveModel = key.flatMap(persistentModelCache::get);
+            boolean cached = effectiveModel.isPresent();
+            if (cached) {
+                LOGGER.debug("Using cached effective model for {}", pomFile.getAbsolutePath());
+            } else {
+                Optional<ModelBuildingResult> result = buildEffectiveModel(pomFile);
+                effectiveModel = result.map(ModelBuildingResult::getEffectiveModel);
+                if (result.isPresent() && key.isPresent() && isPersistable(result.get())) {
+                    persistentModelCache.put(key.get(), effectiveModel.get());
+                }
+            }
+            if (effectiveModel.isPresent()) {
+                outcome = cached ? OUTCOME_CACHED : ScanEvents.OUTCOME_SUCCESS;
+                return new EffectiveModel(effectiveModel.get());
+            }
+            LOGGER.warn("Using raw model for " + pomFile.getAbsolutePath());
+            Model rawModel = rawModelBuilder.getModel(pomFile);
+            outcome = OUTCOME_RAW;
+            return rawModel;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.pom = pomFile.getAbsolutePath();
+                event.bytes = pomFile.length();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Determines the key of the effective model for the given POM file in the {@link PersistentModelCache}, i.e. the SHA-1 checksum over the
+     * {@link #ENVIRONMENT_PROPERTIES} and the SHA-1 checksums of the POM and all its parents.
+     * <p>
+     * The POM file is read once, the checksums of parent hierarchies are determined once per scan and shared by all POMs with the same parent.
+     *
+     * @param pomFile
+     *            The POM file.
+     * @return The key or {@link Optional#empty()} if the parent hierarchy cannot be resolved.
+     */
+    private Optional<String> getPersistentModelCacheKey(File pomFile) {
+        return getHierarchyChecksum(new FileModelSource(pomFile), 0).map(checksum -> DigestUtils.sha1Hex(environmentChecksum + checksum));
+    }
+
+    private Optional<String> getHierarchyChecksum(ModelSource pomSource, int depth) {
+        if (depth > MAXIMUM_PARENT_DEPTH) {
+            LOGGER.warn("Parent hierarchy of {} exceeds {} models.", pomSource.getLocation(), MAXIMUM_PARENT_DEPTH);
+            return Optional.empty();
+        }
+        byte[] pom;
+        Parent parent;
+        try (InputStream inputStream = pomSource.getInputStream()) {
+            pom = IOUtils.toByteArray(inputStream);
+            parent = readParent(pom);
+        } catch (IOException | XMLStreamException e) {
+            LOGGER.debug("Cannot determine checksum of " + pomSource.getLocation(), e);
+            return Optional.empty();
+        }
+        String checksum = DigestUtils.sha1Hex(pom);
+        if (parent == null) {
+            return Optional.of(checksum);
+        }
+        String parentId = parent.getGroupId() + ":" + parent.getArtifactId() + ":" + parent.getVersion();
+        String parentChecksum = parentChecksums.getIfPresent(parentId);
+        if (parentChecksum == null) {
+            Optional<String> resolvedParentChecksum;
+            try {
+                resolvedParentChecksum = getHierarchyChecksum(modelResolver.resolveModel(parent), depth + 1);
+            } catch (UnresolvableModelException e) {
+                LOGGER.debug("Cannot resolve parent " + parentId + " of " + pomSource.getLocation(), e);
+                return Optional.empty();
+            }
+            if (!resolvedParentChecksum.isPresent()) {
+                return Optional.empty();
+            }
+            parentChecksum = resolvedParentChecksum.get();
+            parentChecksums.put(parentId, parentChecksum);
+        }
+        return Optional.of(DigestUtils.sha1Hex(checksum + parentChecksum));
+    }
+
+    private Optional<ModelBuildingResult> buildEffectiveModel(File pomFile) {
         ModelBuildingRequest req = new DefaultModelBuildingRequest();
         req.setProcessPlugins(false);
         req.setPomFile(pomFile);
         req.setModelResolver(modelResolver);
+        req.setModelCache(modelCache);
         req.setValidationLevel(ModelBuildingRequest.VALIDATION_LEVEL_MINIMAL);
         req.setSystemProperties(System.getProperties());
-        builder.setModelValidator(new ModelValidatorImpl());
         try {
-            return new EffectiveModel(builder.build(req).getEffectiveModel());
+            return Optional.of(builder.build(req));
         } catch (ModelBuildingException e) {
             LOGGER.debug("Cannot build effective model for " + pomFile.getAbsolutePath(), e);
             LOGGER.warn("Building model for '{}' reported errors: {}", pomFile.getAbsolutePath(), e.getProblems());
         }
-        LOGGER.warn("Using raw model for " + pomFile.getAbsolutePath());
-        return rawModelBuilder.getModel(pomFile);
+        return Optional.empty();
+    }
+
+    /**
+     * Reads the parent from a POM without building its model, the POM is only parsed up to the end of the parent element.
+     *
+     * @param pom
+     *            The content of the POM.
+     * @return The parent or <code>null</code> if the POM has no parent.
+     * @throws XMLStreamException
+     *             If the POM cannot be parsed.
+     */
+    private static Parent readParent(byte[] pom) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(pom));
+        try {
+            reader.nextTag();
+            while (reader.nextTag() == XMLStreamReader.START_ELEMENT) {
+                if ("parent".equals(reader.getLocalName())) {
+                    Parent parent = new Parent();
+                    while (reader.nextTag() == XMLStreamReader.START_ELEMENT) {
+                        switch (reader.getLocalName()) {
+                        case "groupId":
+                            parent.setGroupId(reader.getElementText()
+                                .trim());
+                            break;
+                        case "artifactId":
+                            parent.setArtifactId(reader.getElementText()
+                                .trim());
+                            break;
+                        case "version":
+                            parent.setVersion(reader.getElementText()
+                                .trim());
+                            break;
+                        default:
+                            skipElement(reader);
+                        }
+                    }
+                    return parent;
+                }
+                skipElement(reader);
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamReader.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamReader.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Determines if a built effective model may be persisted, i.e. it neither imports dependency management sections (BOMs) nor activates
+     * profiles. The key of a persisted model covers only the POM and its parents, imported BOMs may change (e.g. SNAPSHOTs) and profiles may be
+     * activated by the environment (e.g. JDK or OS) of the scan.
+     *
+     * @param result
+     *            The {@link ModelBuildingResult}.
+     * @return <code>true</code> if the effective model may be persisted.
+     */
+    private static boolean isPersistable(ModelBuildingResult result) {
+        if (!result.getActiveExternalProfiles()
+            .isEmpty()) {
+            return false;
+        }
+        for (String modelId : result.getModelIds()) {
+            List<?> activePomProfiles = result.getActivePomProfiles(modelId);
+            if (activePomProfiles != null && !activePomProfiles.isEmpty()) {
+                return false;
+            }
+            Model rawModel = result.getRawModel(modelId);
+            DependencyManagement dependencyManagement = rawModel != null ? rawModel.getDependencyManagement() : null;
+            if (dependencyManagement != null && dependencyManagement.getDependencies()
+                .stream()
+                .anyMatch(dependency -> SCOPE_IMPORT.equals(dependency.getScope()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getEnvironmentChecksum() {
+        StringBuilder environment = new StringBuilder();
+        for (String property : ENVIRONMENT_PROPERTIES) {
+            environment.append(property)
+                .append('=')
+                .append(Objects.toString(System.getProperty(property), ""))
+                .append('\n');
+        }
+        return DigestUtils.sha1Hex(environment.toString());
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
     }
 
     /*
@@ -71,6 +345,36 @@ public class EffectiveModelBuilder implements PomModelBuilder {
      */
     private static class ModelValidatorImpl implements ModelValidator {
 
+        private static final String DEFAULT_MODEL_PROBLEM_COLLECTOR = "org.apache.maven.model.building.DefaultModelProblemCollector";
+
+        /**
+         * The class of the default {@link ModelProblemCollector}, <code>null</code> if its severities cannot be accessed.
+         */
+        private static final Class<?> COLLECTOR_TYPE;
+
+        /**
+         * The getter for the severities of the default {@link ModelProblemCollector}, resolved once.
+         */
+        private static final MethodHandle SEVERITIES_GETTER;
+
+        static {
+            Class<?> collectorType = null;
+            MethodHandle severitiesGetter = null;
+            try {
+                collectorType = Class.forName(DEFAULT_MODEL_PROBLEM_COLLECTOR, false, ModelProblemCollector.class.getClassLoader());
+                Field severities = collectorType.getDeclaredField("severities");
+                severities.setAccessible(true);
+                severitiesGetter = MethodHandles.lookup()
+                    .unreflectGetter(severities)
+                    .asType(MethodType.methodType(Collection.class, Object.class));
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                LOGGER.warn("Cannot access severities of " + DEFAULT_MODEL_PROBLEM_COLLECTOR + ", model problems will not be suppressed.", e);
+                collectorType = null;
+            }
+            COLLECTOR_TYPE = collectorType;
+            SEVERITIES_GETTER = severitiesGetter;
+        }
+
         @Override
         public void validateRawModel(Model model, ModelBuildingRequest request, ModelProblemCollector problems) {
         }
@@ -78,34 +382,29 @@ public class EffectiveModelBuilder implements PomModelBuilder {
         @Override
         public void validateEffectiveModel(Model model, ModelBuildingRequest request, ModelProblemCollector problems) {
             if (problems instanceof ModelProblemCollectorExt) {
-                clearProblems(problems, "problems", true);
-                clearProblems(problems, "severities", false);
+                List<ModelProblem> problemList = ((ModelProblemCollectorExt) problems).getProblems();
+                if (!problemList.isEmpty()) {
+                    LOGGER.warn("Problems have been detected while validating POM model: {}.", problemList);
+                    problemList.clear();
+                }
+                clearSeverities(problems);
             }
         }
 
         /**
-         * Clear a relevant fields contained in the {@link ModelProblemCollector} to suppress errors.
+         * Clear the severities contained in the {@link ModelProblemCollector} to suppress errors.
          *
          * @param problems
          *            The problems.
-         * @param field
-         *            The field to clear.
-         * @param logValue
-         *            `true` if the value shall be logged.
          */
-        private void clearProblems(ModelProblemCollector problems, String field, boolean logValue) {
-            try {
-                Field problemsList = problems.getClass().getDeclaredField(field);
-                problemsList.setAccessible(true);
-                Collection<?> value = (Collection<?>) problemsList.get(problems);
-                if (!value.isEmpty()) {
-                    if (logValue) {
-                        LOGGER.warn("Problems have been detected while validating POM model: {}.", value);
-                    }
-                    value.clear();
+        private void clearSeverities(ModelProblemCollector problems) {
+            if (COLLECTOR_TYPE != null && COLLECTOR_TYPE.isInstance(problems)) {
+                try {
+                    Collection<?> severities = (Collection<?>) SEVERITIES_GETTER.invokeExact((Object) problems);
+                    severities.clear();
+                } catch (Throwable e) {
+                    LOGGER.warn("Cannot clear severities of " + DEFAULT_MODEL_PROBLEM_COLLECTOR, e);
                 }
-            } catch (ReflectiveOperationException e) {
-                LOGGER.warn("Cannot access field " + field, e);
             }
         }
     }
@@ -117,6 +416,11 @@ public class EffectiveModelBuilder implements PomModelBuilder {
 
         private ArtifactProvider artifactProvider;
 
+        /**
+         * The files of the resolved models, shared by all copies of this resolver.
+         */
+        private final Set<File> resolvedModels;
+
         /**
          * Constructor.
          *
@@ -124,7 +428,12 @@ public class EffectiveModelBuilder implements PomModelBuilder {
          *      The {@link ArtifactProvider}
          */
         public ModelResolverImpl(ArtifactProvider artifactProvider) {
+            this(artifactProvider, ConcurrentHashMap.newKeySet());
+        }
+
+        private ModelResolverImpl(ArtifactProvider artifactProvider, Set<File> resolvedModels) {
             this.artifactProvider = artifactProvider;
+            this.resolvedModels = resolvedModels;
         }
 
         @Override
@@ -137,7 +446,8 @@ public class EffectiveModelBuilder implements PomModelBuilder {
                 throw new UnresolvableModelException("Cannot resolve artifact.", groupId, artifactId, version, e);
             }
             final File file = artifactResult.getArtifact().getFile();
-            return new FileModelSource(file);
+            resolvedModels.add(file);
+            return new ResolvedModelSource(artifact, file);
         }
 
         @Override
@@ -160,7 +470,43 @@ public class EffectiveModelBuilder implements PomModelBuilder {
 
         @Override
         public ModelResolver newCopy() {
-            return new ModelResolverImpl(artifactProvider);
+            return new ModelResolverImpl(artifactProvider, resolvedModels);
+        }
+
+        /**
+         * The {@link FileModelSource} of a resolved model.
+         * <p>
+         * If downloaded artifacts are not kept the scanner deletes a POM after scanning it, while it may just have been resolved as parent
+         * for building the model of another artifact on a fetch thread. In this case the model is resolved again, i.e. downloaded once more.
+         */
+        private final class ResolvedModelSource extends FileModelSource {
+
+            private final Artifact artifact;
+
+            private ResolvedModelSource(Artifact artifact, File file) {
+                super(file);
+                this.artifact = artifact;
+            }
+
+            @Override
+            public InputStream getInputStream() throws IOException {
+                try {
+                    return super.getInputStream();
+                } catch (FileNotFoundException | NoSuchFileException e) {
+                    LOGGER.debug("Model {} has been deleted after resolving it, resolving it again.", artifact);
+                    File file;
+                    try {
+                        file = artifactProvider.getArtifact(artifact)
+                            .getArtifact()
+                            .getFile();
+                    } catch (ArtifactResolutionException resolutionException) {
+                        e.addSuppressed(resolutionException);
+                        throw e;
+                    }
+                    resolvedModels.add(file);
+                    return Files.newInputStream(file.toPath());
+                }
+            }
         }
     }
 }
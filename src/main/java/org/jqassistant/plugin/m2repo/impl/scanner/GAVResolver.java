@@ -26,20 +26,28 @@ class GAVResolver {
 
     private final MavenRepositoryDescriptor repositoryDescriptor;
 
+    private final CoordinatePool coordinatePool;
+
     private final String CACHE_KEY_GROUP_ID = GAVResolver.class.getName() + "_GROUP_ID";
     private final String CACHE_KEY_ARTIFACT_ID = GAVResolver.class.getName() + "_ARTIFACT_ID";
     private final String CACHE_KEY_VERSION = GAVResolver.class.getName() + "VERSION";
 
+    private long versionRequests;
+    private long versionMisses;
+
     /**
      * Constructor.
      *
      * @param store
      * @param repositoryDescriptor
      *            The {@link MavenRepositoryDescriptor}.
+     * @param coordinatePool
+     *            The {@link CoordinatePool} providing canonical coordinate values.
      */
-    GAVResolver(Store store, MavenRepositoryDescriptor repositoryDescriptor) {
+    GAVResolver(Store store, MavenRepositoryDescriptor repositoryDescriptor, CoordinatePool coordinatePool) {
         this.store = store;
         this.repositoryDescriptor = repositoryDescriptor;
+        this.coordinatePool = coordinatePool;
     }
 
     /**
@@ -50,20 +58,42 @@ class GAVResolver {
      * @return The {@link MavenVersionDescriptor}.
      */
     public MavenVersionDescriptor resolve(Coordinates coordinates) {
-        String baseVersion = MavenArtifactHelper.getBaseVersion(coordinates);
-        GAV gav = GAV.builder().groupId(coordinates.getGroup()).artifactId(coordinates.getName()).version(baseVersion).build();
+        String groupId = coordinatePool.canonical(coordinates.getGroup());
+        String artifactId = coordinatePool.canonical(coordinates.getName());
+        String baseVersion = coordinatePool.canonical(MavenArtifactHelper.getBaseVersion(coordinates));
+        GAV gav = GAV.builder().groupId(groupId).artifactId(artifactId).version(baseVersion).build();
+        versionRequests++;
         return store.<GAV, MavenVersionDescriptor> getCache(CACHE_KEY_VERSION).get(gav, key -> {
-            GAV ga = GAV.builder().groupId(coordinates.getGroup()).artifactId(coordinates.getName()).build();
-            String versionFQN = coordinates.getGroup() + ":" + coordinates.getName() + ":" + baseVersion;
+            versionMisses++;
+            GAV ga = GAV.builder().groupId(groupId).artifactId(artifactId).build();
+            String versionFQN = groupId + ":" + artifactId + ":" + baseVersion;
             return getVersion(store.<GAV, MavenArtifactIdDescriptor> getCache(CACHE_KEY_ARTIFACT_ID).get(ga, gaKey -> {
-                String artifactFQN = coordinates.getGroup() + ":" + coordinates.getName();
+                String artifactFQN = groupId + ":" + artifactId;
                 return getArtifactId(
-                        store.<String, MavenGroupIdDescriptor> getCache(CACHE_KEY_GROUP_ID).get(coordinates.getGroup(), groupId -> getGroupId(groupId)),
-                        artifactFQN, coordinates.getName());
+                        store.<String, MavenGroupIdDescriptor> getCache(CACHE_KEY_GROUP_ID).get(groupId, groupIdKey -> getGroupId(groupIdKey)),
+                        artifactFQN, artifactId);
             }), versionFQN, baseVersion);
         });
     }
 
+    /**
+     * Return the number of resolved {@link Coordinates}.
+     *
+     * @return The number of resolved {@link Coordinates}.
+     */
+    long getVersionRequests() {
+        return versionRequests;
+    }
+
+    /**
+     * Return the number of resolved {@link Coordinates} which have not been found in the version cache.
+     *
+     * @return The number of cache misses.
+     */
+    long getVersionMisses() {
+        return versionMisses;
+    }
+
     /**
      * Resolve the {@link MavenGroupIdDescriptor} for the given groupId.
      */
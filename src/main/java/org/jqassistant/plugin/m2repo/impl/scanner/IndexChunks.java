@@ -0,0 +1,104 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.*;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.apache.lucene.document.Document;
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexUtils;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.updater.IndexDataReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides the {@link ArtifactInfo}s contained in incremental index chunks which have been received by an index update.
+ * <p>
+ * The chunks are read sequentially in the order they have been applied to the index, documents which do not represent artifacts (e.g.
+ * descriptors or deletion markers) are skipped. The number of {@link ArtifactInfo}s is not known before, it is counted while iterating.
+ */
+class IndexChunks implements Iterable<ArtifactInfo> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndexChunks.class);
+
+    private final List<File> chunkFiles;
+
+    private final IndexingContext indexingContext;
+
+    /**
+     * Constructor.
+     *
+     * @param chunkFiles
+     *     The files containing the received chunks.
+     * @param indexingContext
+     *     The {@link IndexingContext}.
+     */
+    IndexChunks(List<File> chunkFiles, IndexingContext indexingContext) {
+        this.chunkFiles = chunkFiles;
+        this.indexingContext = indexingContext;
+    }
+
+    @Override
+    public Iterator<ArtifactInfo> iterator() {
+        return new Iterator<ArtifactInfo>() {
+
+            private final Iterator<File> files = chunkFiles.iterator();
+
+            private IndexDataReader reader;
+
+            private InputStream inputStream;
+
+            private ArtifactInfo next;
+
+            private int count;
+
+            private boolean completed;
+
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (next == null) {
+                        if (reader == null) {
+                            if (!files.hasNext()) {
+                                if (!completed) {
+                                    completed = true;
+                                    LOGGER.info("Read {} artifacts from {} incremental index chunks.", count, chunkFiles.size());
+                                }
+                                return false;
+                            }
+                            inputStream = new BufferedInputStream(new FileInputStream(files.next()));
+                            reader = new IndexDataReader(inputStream);
+                            reader.readHeader();
+                        }
+                        Document document = reader.readDocument();
+                        if (document == null) {
+                            inputStream.close();
+                            reader = null;
+                        } else {
+                            ArtifactInfo artifactInfo = IndexUtils.constructArtifactInfo(document, indexingContext);
+                            if (artifactInfo != null && artifactInfo.getGroupId() != null) {
+                                next = artifactInfo;
+                                count++;
+                            }
+                        }
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Cannot read index chunk.", e);
+                }
+            }
+
+            @Override
+            public ArtifactInfo next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ArtifactInfo artifactInfo = next;
+                next = null;
+                return artifactInfo;
+            }
+        };
+    }
+}
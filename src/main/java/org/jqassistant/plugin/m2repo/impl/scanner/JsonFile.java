@@ -0,0 +1,77 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Writes the JSON files created while scanning (e.g. the scan status or the latency report).
+ */
+final class JsonFile {
+
+    private JsonFile() {
+    }
+
+    /**
+     * Converts the given value to a JSON string literal, i.e. quotes and control characters are escaped.
+     *
+     * @param value
+     *     The value, may be <code>null</code>.
+     * @return The JSON string literal or <code>null</code>.
+     */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder literal = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '"':
+                literal.append("\\\"");
+                break;
+            case '\\':
+                literal.append("\\\\");
+                break;
+            case '\n':
+                literal.append("\\n");
+                break;
+            case '\r':
+                literal.append("\\r");
+                break;
+            case '\t':
+                literal.append("\\t");
+                break;
+            default:
+                if (c < 0x20) {
+                    literal.append(String.format("\\u%04x", (int) c));
+                } else {
+                    literal.append(c);
+                }
+            }
+        }
+        return literal.append('"')
+            .toString();
+    }
+
+    /**
+     * Writes the given JSON document to a file. The document is written to a temporary file which replaces the file, i.e. readers never see
+     * a partially written document.
+     *
+     * @param file
+     *     The file.
+     * @param json
+     *     The JSON document.
+     * @throws IOException
+     *     If the file cannot be written.
+     */
+    static void write(File file, String json) throws IOException {
+        file.getParentFile()
+            .mkdirs();
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        Files.write(tempFile.toPath(), json.getBytes(StandardCharsets.UTF_8));
+        Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
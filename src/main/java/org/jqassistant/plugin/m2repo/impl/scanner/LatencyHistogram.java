@@ -0,0 +1,108 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A histogram of latencies with log-linear buckets (similar to HDR histograms), i.e. each power of two is divided into 16 linear
+ * sub-buckets which limits the relative error of reported values to about 6%.
+ * <p>
+ * Latencies are recorded in microseconds from 1 microsecond up to 2^41 microseconds (about 25 days), larger values are recorded into the last
+ * bucket. Recording is lock-free and may happen concurrently.
+ */
+class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a latency.
+     *
+     * @param nanos
+     *     The latency in nanoseconds.
+     */
+    void record(long nanos) {
+        long micros = Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos));
+        counts.incrementAndGet(index(micros));
+        count.increment();
+        max.accumulate(micros);
+    }
+
+    /**
+     * Return the number of recorded latencies.
+     *
+     * @return The number of recorded latencies.
+     */
+    long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Return the maximum recorded latency.
+     *
+     * @return The maximum latency in microseconds.
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Return the latency at the given percentile, i.e. the highest value of the bucket containing the percentile (but not more than the
+     * maximum recorded latency).
+     *
+     * @param percentile
+     *     The percentile, e.g. <code>99.9</code>.
+     * @return The latency in microseconds, 0 if no latencies have been recorded.
+     */
+    long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100d, percentile) / 100d * total));
+        long cumulated = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulated += snapshot[i];
+            if (cumulated >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        if (exponent == MAX_EXPONENT && value >= 1L << (MAX_EXPONENT + 1)) {
+            subBucket = SUB_BUCKETS - 1;
+        }
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
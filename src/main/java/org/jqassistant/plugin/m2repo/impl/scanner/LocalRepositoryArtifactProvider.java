@@ -0,0 +1,181 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Date;
+
+import org.apache.maven.index.context.IndexingContext;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Provides artifacts of a repository in the local file system (e.g. a <code>file:</code> URL or a mounted repository directory) in place,
+ * i.e. without copying them to a local repository.
+ * <p>
+ * Files created while scanning (e.g. the index or the scan status) are written to a separate work directory, the repository itself is
+ * only read.
+ */
+public class LocalRepositoryArtifactProvider implements ArtifactProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalRepositoryArtifactProvider.class);
+
+    private static final String PROTOCOL_FILE = "file";
+
+    private static final String INDEX_DIRECTORY = ".index";
+
+    private final URL url;
+
+    private final File repositoryRoot;
+
+    private final File workDirectory;
+
+    /**
+     * Creates a new object.
+     *
+     * @param repositoryUrl
+     *            The <code>file:</code> URL of the repository.
+     * @param workDirectory
+     *            The work directory for files created while scanning.
+     * @throws IOException
+     *             If the URL does not represent a directory.
+     */
+    public LocalRepositoryArtifactProvider(URL repositoryUrl, File workDirectory) throws IOException {
+        this.url = repositoryUrl;
+        try {
+            this.repositoryRoot = new File(repositoryUrl.toURI()).getAbsoluteFile();
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            throw new IOException("Cannot determine repository directory for URL '" + repositoryUrl + "'.", e);
+        }
+        if (!repositoryRoot.isDirectory()) {
+            throw new IOException("Repository directory '" + repositoryRoot.getAbsolutePath() + "' does not exist.");
+        }
+        this.workDirectory = new File(workDirectory, repositoryUrl.getPath()).getAbsoluteFile();
+        this.workDirectory.mkdirs();
+        LOGGER.info("Reading repository '{}' in place, using work directory '{}'.", repositoryRoot.getAbsolutePath(),
+            this.workDirectory.getAbsolutePath());
+    }
+
+    /**
+     * Determines if the given URL can be provided by a {@link LocalRepositoryArtifactProvider}.
+     *
+     * @param repositoryUrl
+     *            The repository URL.
+     * @return <code>true</code> if the URL refers to the local file system.
+     */
+    public static boolean isLocal(URL repositoryUrl) {
+        return PROTOCOL_FILE.equalsIgnoreCase(repositoryUrl.getProtocol());
+    }
+
+    /**
+     * Resolves the given artifact from the repository directory using the default repository layout.
+     *
+     * @param artifact
+     *            the artifact to resolve
+     * @return the {@link ArtifactResult} referencing the file in the repository directory
+     * @throws ArtifactResolutionException
+     *             if the file does not exist
+     */
+    @Override
+    public ArtifactResult getArtifact(Artifact artifact) throws ArtifactResolutionException {
+        ArtifactResult artifactResult = new ArtifactResult(new ArtifactRequest(artifact, null, null));
+        File file = new File(repositoryRoot, getPath(artifact));
+        if (!file.isFile()) {
+            artifactResult.addException(new ArtifactNotFoundException(artifact, null));
+            throw new ArtifactResolutionException(singletonList(artifactResult));
+        }
+        return artifactResult.setArtifact(artifact.setFile(file));
+    }
+
+    @Override
+    public File getRepositoryRoot() {
+        return repositoryRoot;
+    }
+
+    @Override
+    public File getWorkDirectory() {
+        return workDirectory;
+    }
+
+    /**
+     * Determines if the repository provides a Maven index, i.e. a directory <code>.index</code> containing the published index.
+     *
+     * @return <code>true</code> if the repository provides a Maven index.
+     */
+    public boolean hasMavenIndex() {
+        return new File(new File(repositoryRoot, INDEX_DIRECTORY), IndexingContext.INDEX_FILE_PREFIX + ".properties").isFile();
+    }
+
+    /**
+     * Return the Maven index of the repository. The local index is created in the work directory.
+     *
+     * @return The index.
+     * @throws IOException
+     *             If the local index directory cannot be created.
+     */
+    public MavenIndex getMavenIndex() throws IOException {
+        return new MavenIndex(url, workDirectory, null, null);
+    }
+
+    /**
+     * Return the artifacts found by walking the repository directory which have been modified since the given date, used if the repository
+     * does not provide a Maven index.
+     * <p>
+     * The directories are walked while the artifacts are iterated, i.e. the size of the result is not known and a directory which cannot
+     * be read is reported by an {@link java.io.UncheckedIOException} while iterating.
+     *
+     * @param startDate
+     *            The date.
+     * @param threads
+     *            The number of threads walking the directories.
+     * @param capacity
+     *            The maximum number of directories whose artifacts are waiting to be iterated.
+     * @return The {@link ArtifactSearchResult}.
+     */
+    public ArtifactSearchResult getArtifactsSince(Date startDate, int threads, int capacity) {
+        LOGGER.info("Walking repository directory '{}' for artifacts that have been updated since {}.", repositoryRoot.getAbsolutePath(),
+            startDate);
+        return RepositoryDirectoryWalker.walk(repositoryRoot.toPath(), startDate.getTime(), threads, capacity);
+    }
+
+    /**
+     * Determines the path of the given artifact relative to the repository root using the default repository layout.
+     *
+     * @param artifact
+     *            The artifact.
+     * @return The relative path.
+     */
+    private static String getPath(Artifact artifact) {
+        StringBuilder path = new StringBuilder(128);
+        path.append(artifact.getGroupId()
+                .replace('.', '/'))
+            .append('/')
+            .append(artifact.getArtifactId())
+            .append('/')
+            .append(artifact.getBaseVersion())
+            .append('/')
+            .append(artifact.getArtifactId())
+            .append('-')
+            .append(artifact.getVersion());
+        if (!artifact.getClassifier()
+            .isEmpty()) {
+            path.append('-')
+                .append(artifact.getClassifier());
+        }
+        if (!artifact.getExtension()
+            .isEmpty()) {
+            path.append('.')
+                .append(artifact.getExtension());
+        }
+        return path.toString();
+    }
+}
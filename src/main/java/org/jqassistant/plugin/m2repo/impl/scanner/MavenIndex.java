@@ -1,12 +1,15 @@
 package org.jqassistant.plugin.m2repo.impl.scanner;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.regex.Pattern;
 
 import org.apache.lucene.search.Query;
 import org.apache.maven.index.*;
@@ -39,6 +42,10 @@ public class MavenIndex implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MavenIndex.class);
 
+    private static final Pattern INDEX_CHUNK = Pattern.compile(IndexingContext.INDEX_FILE_PREFIX + "\\.\\d+\\.gz");
+
+    private static final String PROTOCOL_FILE = "file";
+
     private IndexingContext indexingContext;
 
     private Indexer indexer;
@@ -47,6 +54,19 @@ public class MavenIndex implements AutoCloseable {
 
     private final String username;
 
+    private final URL repoUrl;
+
+    private final File chunkDirectory;
+
+    private final List<File> chunkFiles = new ArrayList<>();
+
+    /**
+     * The timestamp of the local index before the last update, <code>null</code> if there was no local index.
+     */
+    private Date previousTimestamp;
+
+    private boolean fullUpdate;
+
     /**
      * Constructs a new object.
      *
@@ -65,6 +85,8 @@ public class MavenIndex implements AutoCloseable {
         File indexDirectory = new File(repositoryDirectory, ".index");
         this.username = username;
         this.password = password;
+        this.repoUrl = repoUrl;
+        this.chunkDirectory = new File(indexDirectory, "chunks");
         try {
             createIndexingContext(repoUrl, repositoryDirectory, indexDirectory);
         } catch (IllegalArgumentException e) {
@@ -105,6 +127,30 @@ public class MavenIndex implements AutoCloseable {
     @Override
     public void close() throws IOException {
         indexer.closeIndexingContext(indexingContext, false);
+        deleteChunkFiles();
+    }
+
+    /**
+     * Return the artifacts which have been updated since the given date.
+     * <p>
+     * If the last update of the index has been incremental and the local index has not been newer than the given date, the artifacts are
+     * read directly from the received incremental chunks, i.e. the costs scale with the size of the update. Otherwise the complete index is
+     * searched for artifacts which have been modified after the given date.
+     *
+     * @param startDate
+     *            The date.
+     * @return The {@link ArtifactSearchResult}.
+     * @throws IOException
+     *             If the index cannot be searched.
+     */
+    public ArtifactSearchResult getUpdatedArtifacts(Date startDate) throws IOException {
+        if (fullUpdate || previousTimestamp == null || previousTimestamp.after(startDate)) {
+            LOGGER.info("Incremental index chunks do not cover all updates since {}.", startDate);
+            return getArtifactsSince(startDate);
+        }
+        LOGGER.info("Reading artifacts from {} received incremental index chunks.", chunkFiles.size());
+        // the size is unknown until the chunks have been read, the progress is extrapolated while reading
+        return new ArtifactSearchResult(new IndexChunks(new ArrayList<>(chunkFiles), indexingContext), 0);
     }
 
     public ArtifactSearchResult getArtifactsSince(final Date startDate) throws IOException {
@@ -126,9 +172,11 @@ public class MavenIndex implements AutoCloseable {
      *      When a component could not be looked up.
      */
     public void updateIndex() throws IOException {
-        if (indexingContext.getTimestamp() != null) {
-            LOGGER.info("Current Maven index timestamp: {}", indexingContext.getTimestamp());
+        previousTimestamp = indexingContext.getTimestamp();
+        if (previousTimestamp != null) {
+            LOGGER.info("Current Maven index timestamp: {}", previousTimestamp);
         }
+        deleteChunkFiles();
         DefaultIncrementalHandler incrementalHandler = new DefaultIncrementalHandler();
         IndexUpdater indexUpdater =new DefaultIndexUpdater(incrementalHandler, emptyList());
         HttpWagon httpWagon = new HttpWagon();
@@ -159,10 +207,14 @@ public class MavenIndex implements AutoCloseable {
             info.setPassword(password);
         }
         LOGGER.info("Updating repository index, this may take a while...");
-        ResourceFetcher resourceFetcher = new WagonHelper.WagonFetcher(httpWagon, listener, info, null);
+        ResourceFetcher fetcher = PROTOCOL_FILE.equalsIgnoreCase(repoUrl.getProtocol()) ?
+            new FileResourceFetcher() :
+            new WagonHelper.WagonFetcher(httpWagon, listener, info, null);
+        ResourceFetcher resourceFetcher = new ChunkRecordingResourceFetcher(fetcher);
         IndexUpdateRequest updateRequest = new IndexUpdateRequest(indexingContext, resourceFetcher);
         IndexUpdateResult updateResult = indexUpdater.fetchAndUpdateIndex(updateRequest);
-        if (updateResult.isFullUpdate()) {
+        fullUpdate = updateResult.isFullUpdate();
+        if (fullUpdate) {
             LOGGER.info("Received a full update.");
         } else if (updateResult.getTimestamp() == null) {
             LOGGER.info("No update needed, index is up to date.");
@@ -172,4 +224,77 @@ public class MavenIndex implements AutoCloseable {
         LOGGER.info("Updated Maven index timestamp: {}", indexingContext.getTimestamp());
     }
 
+    private void deleteChunkFiles() {
+        for (File chunkFile : chunkFiles) {
+            chunkFile.delete();
+        }
+        chunkFiles.clear();
+    }
+
+    /**
+     * A {@link ResourceFetcher} reading the index of a repository in the local file system.
+     */
+    private static class FileResourceFetcher implements ResourceFetcher {
+
+        private File indexDirectory;
+
+        @Override
+        public void connect(String id, String url) throws IOException {
+            try {
+                indexDirectory = new File(new URL(url).toURI());
+            } catch (URISyntaxException | IllegalArgumentException e) {
+                throw new IOException("Cannot determine index directory for URL '" + url + "'.", e);
+            }
+            LOGGER.info("Reading index from {}", indexDirectory.getAbsolutePath());
+        }
+
+        @Override
+        public void disconnect() {
+            indexDirectory = null;
+        }
+
+        @Override
+        public InputStream retrieve(String name) throws IOException {
+            return new BufferedInputStream(new FileInputStream(new File(indexDirectory, name)));
+        }
+    }
+
+    /**
+     * A {@link ResourceFetcher} keeping a copy of each retrieved incremental index chunk.
+     */
+    private class ChunkRecordingResourceFetcher implements ResourceFetcher {
+
+        private final ResourceFetcher delegate;
+
+        private ChunkRecordingResourceFetcher(ResourceFetcher delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void connect(String id, String url) throws IOException {
+            delegate.connect(id, url);
+        }
+
+        @Override
+        public void disconnect() throws IOException {
+            delegate.disconnect();
+        }
+
+        @Override
+        public InputStream retrieve(String name) throws IOException {
+            InputStream inputStream = delegate.retrieve(name);
+            if (!INDEX_CHUNK.matcher(name)
+                .matches()) {
+                return inputStream;
+            }
+            chunkDirectory.mkdirs();
+            File chunkFile = new File(chunkDirectory, name);
+            try (InputStream chunk = inputStream) {
+                Files.copy(chunk, chunkFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            chunkFiles.add(chunkFile);
+            return new BufferedInputStream(new FileInputStream(chunkFile));
+        }
+    }
+
 }
@@ -4,6 +4,7 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Date;
 
 import com.buschmais.jqassistant.core.scanner.api.Scanner;
@@ -18,6 +19,8 @@ import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescript
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenRepositoryResolver;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
 
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+
 /**
  * A scanner for (remote) maven repositories.
  *
@@ -27,13 +30,30 @@ public class MavenRepositoryScannerPlugin extends AbstractScannerPlugin<URL, Mav
 
     private static final String PROPERTY_NAME_ARTIFACTS_KEEP = "m2repo.artifacts.keep";
     private static final String PROPERTY_NAME_ARTIFACTS_SCAN = "m2repo.artifacts.scan";
+    private static final String PROPERTY_NAME_ARTIFACTS_MAX_SIZE = "m2repo.artifacts.maxSize";
+    private static final String PROPERTY_NAME_ARTIFACTS_EXTENSIONS = "m2repo.artifacts.extensions";
+    private static final String PROPERTY_NAME_ARTIFACTS_EXCLUDED_CLASSIFIERS = "m2repo.artifacts.excludedClassifiers";
+    private static final String PROPERTY_NAME_ARTIFACTS_LINK_DUPLICATES = "m2repo.artifacts.linkDuplicates";
     private static final String PROPERTY_NAME_FILTER_INCLUDES = "m2repo.filter.includes";
     private static final String PROPERTY_NAME_FILTER_EXCLUDES = "m2repo.filter.excludes";
     private static final String PROPERTY_NAME_DIRECTORY = "m2repo.directory";
+    private static final String PROPERTY_NAME_FETCH_THREADS = "m2repo.fetch.threads";
+    private static final String PROPERTY_NAME_FETCH_QUEUE_CAPACITY = "m2repo.fetch.queue.capacity";
+    private static final String PROPERTY_NAME_CACHE_MODELS_SIZE = "m2repo.cache.models.size";
+    private static final String PROPERTY_NAME_CACHE_MODELS_EXPIRY = "m2repo.cache.models.expiry";
+    private static final String PROPERTY_NAME_CACHE_PARENT_MODELS_SIZE = "m2repo.cache.parentModels.size";
+    private static final String PROPERTY_NAME_CACHE_EFFECTIVE_MODELS_PERSIST = "m2repo.cache.effectiveModels.persist";
+    private static final String PROPERTY_NAME_CACHE_EFFECTIVE_MODELS_EXPIRY = "m2repo.cache.effectiveModels.expiry";
+    private static final String PROPERTY_NAME_INDEX_SORT = "m2repo.index.sort";
+    private static final String PROPERTY_NAME_INDEX_INCREMENTAL = "m2repo.index.incremental";
+    private static final String PROPERTY_NAME_SCAN_RESUMABLE = "m2repo.scan.resumable";
+    private static final String PROPERTY_NAME_MODELS_STREAM = "m2repo.models.stream";
+    private static final String PROPERTY_NAME_CACHE_UNRESOLVABLE_TTL = "m2repo.cache.unresolvable.ttl";
     private static final String DEFAULT_DATA_DIRECTORY = "m2repo";
 
-    private boolean keepArtifacts;
-    private boolean scanArtifacts;
+    private ScanOptions scanOptions;
+    private Duration unresolvableTimeToLive;
+    private boolean incrementalIndex;
     private ArtifactFilter artifactFilter;
     private String localDirectoryName;
 
@@ -46,8 +66,26 @@ public class MavenRepositoryScannerPlugin extends AbstractScannerPlugin<URL, Mav
     /** {@inheritDoc} */
     @Override
     public void configure() {
-        scanArtifacts = getBooleanProperty(PROPERTY_NAME_ARTIFACTS_SCAN, false);
-        keepArtifacts = getBooleanProperty(PROPERTY_NAME_ARTIFACTS_KEEP, true);
+        String modelCacheExpiry = getStringProperty(PROPERTY_NAME_CACHE_MODELS_EXPIRY, null);
+        scanOptions = ScanOptions.builder()
+            .scanArtifacts(getBooleanProperty(PROPERTY_NAME_ARTIFACTS_SCAN, false))
+            .artifactSelector(new ArtifactSelector(getLongProperty(PROPERTY_NAME_ARTIFACTS_MAX_SIZE, 0),
+                getStringProperty(PROPERTY_NAME_ARTIFACTS_EXTENSIONS, null), getStringProperty(PROPERTY_NAME_ARTIFACTS_EXCLUDED_CLASSIFIERS, null)))
+            .keepArtifacts(getBooleanProperty(PROPERTY_NAME_ARTIFACTS_KEEP, true))
+            .linkDuplicateArtifacts(getBooleanProperty(PROPERTY_NAME_ARTIFACTS_LINK_DUPLICATES, false))
+            .fetchThreads((int) getLongProperty(PROPERTY_NAME_FETCH_THREADS, 1))
+            .queueCapacity((int) getLongProperty(PROPERTY_NAME_FETCH_QUEUE_CAPACITY, 1000))
+            .modelCacheSize(getLongProperty(PROPERTY_NAME_CACHE_MODELS_SIZE, 256))
+            .modelCacheExpiry(modelCacheExpiry != null ? Duration.parse(modelCacheExpiry) : null)
+            .parentModelCacheSize(getLongProperty(PROPERTY_NAME_CACHE_PARENT_MODELS_SIZE, 512))
+            .persistEffectiveModels(getBooleanProperty(PROPERTY_NAME_CACHE_EFFECTIVE_MODELS_PERSIST, false))
+            .persistedEffectiveModelExpiry(Duration.parse(getStringProperty(PROPERTY_NAME_CACHE_EFFECTIVE_MODELS_EXPIRY, "P30D")))
+            .streamModels(getBooleanProperty(PROPERTY_NAME_MODELS_STREAM, false))
+            .resumable(getBooleanProperty(PROPERTY_NAME_SCAN_RESUMABLE, false))
+            .sortArtifacts(getBooleanProperty(PROPERTY_NAME_INDEX_SORT, false))
+            .build();
+        incrementalIndex = getBooleanProperty(PROPERTY_NAME_INDEX_INCREMENTAL, false);
+        unresolvableTimeToLive = Duration.parse(getStringProperty(PROPERTY_NAME_CACHE_UNRESOLVABLE_TTL, "PT1H"));
         artifactFilter = new ArtifactFilter(getStringProperty(PROPERTY_NAME_FILTER_INCLUDES, null), getStringProperty(PROPERTY_NAME_FILTER_EXCLUDES, null));
         localDirectoryName = getStringProperty(PROPERTY_NAME_DIRECTORY, null);
     }
@@ -57,28 +95,83 @@ public class MavenRepositoryScannerPlugin extends AbstractScannerPlugin<URL, Mav
     public MavenRepositoryDescriptor scan(URL repositoryUrl, String path, Scope scope, Scanner scanner) throws IOException {
         ScannerContext context = scanner.getContext();
         File localDirectory = getLocalDirectory(context);
-        AetherArtifactProvider artifactProvider = new AetherArtifactProvider(repositoryUrl, localDirectory);
-        ArtifactSearchResultScanner artifactSearchResultScanner = new ArtifactSearchResultScanner(scanner, artifactProvider, artifactFilter, scanArtifacts,
-                keepArtifacts);
-
         MavenRepositoryDescriptor repositoryDescriptor = MavenRepositoryResolver.resolve(context.getStore(), repositoryUrl.toString());
-        FileResolver fileResolver = context.peek(FileResolver.class);
-        MavenRepositoryArtifactResolver repositoryArtifactResolver = new MavenRepositoryArtifactResolver(artifactProvider.getRepositoryRoot(), fileResolver);
-        try (MavenIndex mavenIndex = artifactProvider.getMavenIndex()) {
-            Date lastScanTime = new Date(repositoryDescriptor.getLastUpdate());
-            mavenIndex.updateIndex();
-            // register file resolver strategy to identify repository artifacts
-            context.push(ArtifactResolver.class, repositoryArtifactResolver);
-            try (ArtifactSearchResult searchResult = mavenIndex.getArtifactsSince(lastScanTime)) {
-                artifactSearchResultScanner.scan(searchResult, repositoryDescriptor);
-            } finally {
-                context.pop(ArtifactResolver.class);
+        Date lastScanTime = new Date(repositoryDescriptor.getLastUpdate());
+        if (LocalRepositoryArtifactProvider.isLocal(repositoryUrl)) {
+            // read the artifacts in place, they must never be deleted after scanning
+            LocalRepositoryArtifactProvider artifactProvider = new LocalRepositoryArtifactProvider(repositoryUrl, localDirectory);
+            ScanOptions localScanOptions = scanOptions.toBuilder()
+                .keepArtifacts(true)
+                .build();
+            if (artifactProvider.hasMavenIndex()) {
+                try (MavenIndex mavenIndex = artifactProvider.getMavenIndex()) {
+                    scan(mavenIndex, lastScanTime, artifactProvider, localScanOptions, repositoryDescriptor, scanner);
+                }
+            } else {
+                try (ArtifactSearchResult searchResult = artifactProvider.getArtifactsSince(lastScanTime, localScanOptions.getFetchThreads(),
+                    localScanOptions.getQueueCapacity())) {
+                    scan(searchResult, artifactProvider, localScanOptions, repositoryDescriptor, scanner);
+                }
+            }
+        } else {
+            AetherArtifactProvider artifactProvider = new AetherArtifactProvider(repositoryUrl, localDirectory,
+                Math.max(AetherArtifactProvider.DEFAULT_THREADS, scanOptions.getFetchThreads()));
+            try (MavenIndex mavenIndex = artifactProvider.getMavenIndex()) {
+                scan(mavenIndex, lastScanTime, artifactProvider, scanOptions, repositoryDescriptor, scanner);
             }
         }
         repositoryDescriptor.setLastUpdate(System.currentTimeMillis());
         return repositoryDescriptor;
     }
 
+    /**
+     * Updates the given {@link MavenIndex} and scans the artifacts which have been updated since the last scan.
+     */
+    private void scan(MavenIndex mavenIndex, Date lastScanTime, ArtifactProvider artifactProvider, ScanOptions options,
+        MavenRepositoryDescriptor repositoryDescriptor, Scanner scanner) throws IOException {
+        mavenIndex.updateIndex();
+        try (ArtifactSearchResult searchResult = incrementalIndex ?
+            mavenIndex.getUpdatedArtifacts(lastScanTime) :
+            mavenIndex.getArtifactsSince(lastScanTime)) {
+            scan(searchResult, artifactProvider, options, repositoryDescriptor, scanner);
+        }
+    }
+
+    /**
+     * Scans the artifacts of the given {@link ArtifactSearchResult} provided by the given {@link ArtifactProvider}.
+     */
+    private void scan(ArtifactSearchResult searchResult, ArtifactProvider artifactProvider, ScanOptions options,
+        MavenRepositoryDescriptor repositoryDescriptor, Scanner scanner) throws IOException {
+        ScannerContext context = scanner.getContext();
+        // unresolvable artifacts (e.g. missing parents) are shared by many artifacts, remember them for the current scan
+        ArtifactProvider negativeCachingArtifactProvider = new NegativeCachingArtifactProvider(artifactProvider, unresolvableTimeToLive);
+        ArtifactSearchResultScanner artifactSearchResultScanner = new ArtifactSearchResultScanner(scanner, negativeCachingArtifactProvider,
+            artifactFilter, options);
+        FileResolver fileResolver = context.peek(FileResolver.class);
+        MavenRepositoryArtifactResolver repositoryArtifactResolver = new MavenRepositoryArtifactResolver(artifactProvider.getRepositoryRoot(), fileResolver);
+        // register file resolver strategy to identify repository artifacts
+        context.push(ArtifactResolver.class, repositoryArtifactResolver);
+        try {
+            artifactSearchResultScanner.scan(searchResult, repositoryDescriptor);
+        } finally {
+            context.pop(ArtifactResolver.class);
+        }
+    }
+
+    /**
+     * Returns the value of a numeric property.
+     *
+     * @param name
+     *            The name of the property.
+     * @param defaultValue
+     *            The default value if the property is not set.
+     * @return The value.
+     */
+    private long getLongProperty(String name, long defaultValue) {
+        String value = getStringProperty(name, null);
+        return value != null ? Long.parseLong(value.trim()) : defaultValue;
+    }
+
     private File getLocalDirectory(ScannerContext context) {
         File localDirectory;
         if (localDirectoryName != null) {
@@ -0,0 +1,169 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * An {@link ArtifactProvider} remembering artifacts which could not be resolved by a delegate, i.e. each unresolvable artifact is requested
+ * only once within the configured time to live.
+ * <p>
+ * Only artifacts which have not been found are remembered, failed transfers (e.g. timeouts or server errors) may be temporary and are
+ * requested again.
+ */
+class NegativeCachingArtifactProvider implements ArtifactProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NegativeCachingArtifactProvider.class);
+
+    private static final long MAXIMUM_SIZE = 65536;
+
+    private final ArtifactProvider delegate;
+
+    private final Cache<String, ArtifactResolutionException> unresolvableArtifacts;
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *     The {@link ArtifactProvider} to delegate to.
+     * @param timeToLive
+     *     The {@link Duration} an unresolvable artifact is remembered.
+     */
+    NegativeCachingArtifactProvider(ArtifactProvider delegate, Duration timeToLive) {
+        this.delegate = delegate;
+        this.unresolvableArtifacts = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .expireAfterWrite(timeToLive)
+            .build();
+    }
+
+    @Override
+    public ArtifactResult getArtifact(Artifact artifact) throws ArtifactResolutionException {
+        Optional<ArtifactResolutionException> unresolvable = getUnresolvable(artifact);
+        if (unresolvable.isPresent()) {
+            throw unresolvable.get();
+        }
+        try {
+            return delegate.getArtifact(artifact);
+        } catch (ArtifactResolutionException e) {
+            if (isNotFound(e.getResults())) {
+                unresolvableArtifacts.put(artifact.toString(), e);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<ArtifactResult> getArtifactAsync(Artifact artifact) {
+        Optional<ArtifactResolutionException> unresolvable = getUnresolvable(artifact);
+        if (unresolvable.isPresent()) {
+            CompletableFuture<ArtifactResult> future = new CompletableFuture<>();
+            future.completeExceptionally(unresolvable.get());
+            return future;
+        }
+        return delegate.getArtifactAsync(artifact)
+            .whenComplete((artifactResult, throwable) -> {
+                Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                if (cause instanceof ArtifactResolutionException && isNotFound(((ArtifactResolutionException) cause).getResults())) {
+                    unresolvableArtifacts.put(artifact.toString(), (ArtifactResolutionException) cause);
+                }
+            });
+    }
+
+    @Override
+    public List<ArtifactResult> getArtifacts(Collection<? extends Artifact> artifacts) {
+        ArtifactResult[] artifactResults = new ArtifactResult[artifacts.size()];
+        List<Artifact> requestedArtifacts = new ArrayList<>(artifacts.size());
+        List<Integer> requestedPositions = new ArrayList<>(artifacts.size());
+        int position = 0;
+        for (Artifact artifact : artifacts) {
+            Optional<ArtifactResolutionException> unresolvable = getUnresolvable(artifact);
+            if (unresolvable.isPresent()) {
+                artifactResults[position] = new ArtifactResult(new ArtifactRequest(artifact, null, null)).addException(unresolvable.get());
+            } else {
+                requestedArtifacts.add(artifact);
+                requestedPositions.add(position);
+            }
+            position++;
+        }
+        if (!requestedArtifacts.isEmpty()) {
+            List<ArtifactResult> delegateResults = delegate.getArtifacts(requestedArtifacts);
+            for (int i = 0; i < delegateResults.size(); i++) {
+                ArtifactResult artifactResult = delegateResults.get(i);
+                if (!artifactResult.isResolved() && isNotFound(singletonList(artifactResult))) {
+                    unresolvableArtifacts.put(requestedArtifacts.get(i)
+                        .toString(), new ArtifactResolutionException(singletonList(artifactResult)));
+                }
+                artifactResults[requestedPositions.get(i)] = artifactResult;
+            }
+        }
+        return Arrays.asList(artifactResults);
+    }
+
+    @Override
+    public File getRepositoryRoot() {
+        return delegate.getRepositoryRoot();
+    }
+
+    @Override
+    public File getWorkDirectory() {
+        return delegate.getWorkDirectory();
+    }
+
+    /**
+     * Determines if the given {@link ArtifactResult}s only report artifacts which do not exist.
+     *
+     * @param artifactResults
+     *     The {@link ArtifactResult}s.
+     * @return <code>true</code> if all {@link ArtifactResult}s are unresolved and only contain {@link ArtifactNotFoundException}s.
+     */
+    private static boolean isNotFound(List<ArtifactResult> artifactResults) {
+        if (artifactResults == null || artifactResults.isEmpty()) {
+            return false;
+        }
+        for (ArtifactResult artifactResult : artifactResults) {
+            if (artifactResult.isResolved() || artifactResult.getExceptions()
+                .isEmpty()) {
+                return false;
+            }
+            for (Exception exception : artifactResult.getExceptions()) {
+                if (!(exception instanceof ArtifactNotFoundException)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines if the given artifact could not be resolved before.
+     *
+     * @param artifact
+     *     The artifact.
+     * @return The {@link ArtifactResolutionException} to report or {@link Optional#empty()} if the artifact shall be resolved.
+     */
+    private Optional<ArtifactResolutionException> getUnresolvable(Artifact artifact) {
+        ArtifactResolutionException unresolvable = unresolvableArtifacts.getIfPresent(artifact.toString());
+        if (unresolvable == null) {
+            return Optional.empty();
+        }
+        LOGGER.debug("Skipping resolution of previously unresolvable artifact '{}'.", artifact);
+        return Optional.of(
+            new ArtifactResolutionException(unresolvable.getResults(), "Artifact '" + artifact + "' could not be resolved before.", unresolvable));
+    }
+}
@@ -0,0 +1,126 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Persists effective {@link Model}s as compressed XML files in a directory, so they can be reused by later scans without resolving and
+ * interpolating them again.
+ * <p>
+ * The entries are identified by keys which are provided by the caller and must reflect all inputs of the effective model. Reading an entry
+ * renews its last modified timestamp, entries which have not been used within the configured expiry are removed when the cache is opened.
+ */
+class PersistentModelCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PersistentModelCache.class);
+
+    private static final String FILE_EXTENSION = ".xml.gz";
+
+    private final File directory;
+
+    /**
+     * Constructor.
+     *
+     * @param directory
+     *     The directory containing the cached models.
+     * @param expiry
+     *     The duration after the last use when an entry is removed.
+     */
+    PersistentModelCache(File directory, Duration expiry) {
+        this.directory = directory;
+        evict(System.currentTimeMillis() - expiry.toMillis());
+    }
+
+    /**
+     * Load the {@link Model} for the given key.
+     *
+     * @param key
+     *     The key.
+     * @return The {@link Model} or {@link Optional#empty()} if no {@link Model} has been stored for the key.
+     */
+    Optional<Model> get(String key) {
+        File file = getFile(key);
+        if (file.exists()) {
+            try (InputStream inputStream = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                Model model = new MavenXpp3Reader().read(inputStream, false);
+                file.setLastModified(System.currentTimeMillis());
+                return Optional.of(model);
+            } catch (IOException | XmlPullParserException e) {
+                LOGGER.warn("Cannot read cached model from '" + file.getAbsolutePath() + "', removing it.", e);
+                file.delete();
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Store the {@link Model} for the given key.
+     *
+     * @param key
+     *     The key.
+     * @param model
+     *     The {@link Model}.
+     */
+    void put(String key, Model model) {
+        File file = getFile(key);
+        try {
+            File parent = file.getParentFile();
+            parent.mkdirs();
+            // write to a temporary file first, so concurrent readers never see partially written entries
+            File tempFile = File.createTempFile(key, ".tmp", parent);
+            try {
+                try (OutputStream outputStream = new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                    new MavenXpp3Writer().write(outputStream, model);
+                }
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile.toPath());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write cached model to '" + file.getAbsolutePath() + "'.", e);
+        }
+    }
+
+    /**
+     * Removes all entries (including left over temporary files) which have not been used since the given timestamp.
+     *
+     * @param expiredBefore
+     *     The timestamp.
+     */
+    private void evict(long expiredBefore) {
+        File[] subDirectories = directory.listFiles(File::isDirectory);
+        if (subDirectories == null) {
+            return;
+        }
+        int evicted = 0;
+        for (File subDirectory : subDirectories) {
+            File[] files = subDirectory.listFiles(File::isFile);
+            if (files != null) {
+                for (File file : files) {
+                    if (file.lastModified() < expiredBefore && file.delete()) {
+                        evicted++;
+                    }
+                }
+            }
+        }
+        if (evicted > 0) {
+            LOGGER.info("Removed {} expired models from '{}'.", evicted, directory.getAbsolutePath());
+        }
+    }
+
+    private File getFile(String key) {
+        return new File(new File(directory, key.substring(0, 2)), key + FILE_EXTENSION);
+    }
+}
@@ -0,0 +1,196 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reports the progress of a running scan based on the {@link ScanMetrics}, i.e. the number of artifacts expected after filtering, the rolling
+ * throughput and the estimated time of arrival.
+ * <p>
+ * The progress is periodically written as JSON status file which may be watched by external tools.
+ */
+class ProgressReporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProgressReporter.class);
+
+    /**
+     * The number of samples used for calculating the rolling throughput.
+     */
+    private static final int SAMPLES = 12;
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final long TERMINATION_TIMEOUT_SECONDS = 10;
+
+    private static final String STATE_RUNNING = "running";
+    private static final String STATE_COMPLETED = "completed";
+    private static final String STATE_FAILED = "failed";
+
+    private final File statusFile;
+
+    private final String url;
+
+    private final int totalHits;
+
+    private final ScanMetrics metrics;
+
+    private final Duration interval;
+
+    private final Instant started = Instant.now();
+
+    private final Deque<long[]> samples = new ArrayDeque<>(SAMPLES + 1);
+
+    private ScheduledExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param statusFile
+     *     The JSON status file.
+     * @param url
+     *     The URL of the scanned repository.
+     * @param totalHits
+     *     The total number of hits reported by the index (i.e. before filtering).
+     * @param metrics
+     *     The {@link ScanMetrics}.
+     * @param interval
+     *     The interval for updating the status file.
+     */
+    ProgressReporter(File statusFile, String url, int totalHits, ScanMetrics metrics, Duration interval) {
+        this.statusFile = statusFile;
+        this.url = url;
+        this.totalHits = totalHits;
+        this.metrics = metrics;
+        this.interval = interval;
+    }
+
+    /**
+     * Starts periodically updating the status file.
+     */
+    void start() {
+        sample();
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, ProgressReporter.class.getSimpleName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(() -> {
+            sample();
+            write(STATE_RUNNING);
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops updating the status file and writes the final state.
+     *
+     * @param success
+     *     <code>true</code> if the scan has been completed successfully.
+     */
+    void stop(boolean success) {
+        if (executor != null) {
+            // cancels the periodic update without interrupting a running one, which must not overwrite the final state
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(TERMINATION_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    LOGGER.warn("Periodic update of the scan status did not terminate within {} seconds.", TERMINATION_TIMEOUT_SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            }
+        }
+        sample();
+        write(success ? STATE_COMPLETED : STATE_FAILED);
+    }
+
+    /**
+     * Return the number of artifacts expected to be processed, i.e. the number of hits matching the filter. While the index is still being
+     * read the number is extrapolated from the ratio of accepted hits.
+     *
+     * @return The expected number of artifacts.
+     */
+    long getExpectedArtifacts() {
+        long accepted = metrics.getFilterAccepts();
+        if (metrics.isIndexComplete()) {
+            return accepted;
+        }
+        long hits = metrics.getIndexHits();
+        return hits > 0 ? Math.max(accepted, Math.round((double) totalHits * accepted / hits)) : totalHits;
+    }
+
+    /**
+     * Return the number of processed artifacts per second over the last samples.
+     *
+     * @return The throughput.
+     */
+    synchronized double getRate() {
+        if (samples.size() < 2) {
+            return 0d;
+        }
+        long[] first = samples.getFirst();
+        long[] last = samples.getLast();
+        long nanos = last[0] - first[0];
+        return nanos > 0 ? (last[1] - first[1]) * 1_000_000_000d / nanos : 0d;
+    }
+
+    /**
+     * Return the estimated remaining duration of the scan.
+     *
+     * @return The remaining duration or {@link Optional#empty()} if it cannot be estimated yet.
+     */
+    Optional<Duration> getEta() {
+        double rate = getRate();
+        if (rate <= 0) {
+            return Optional.empty();
+        }
+        long remaining = Math.max(0, getExpectedArtifacts() - metrics.getProcessedArtifacts());
+        return Optional.of(Duration.ofSeconds(Math.round(remaining / rate)));
+    }
+
+    private synchronized void sample() {
+        samples.addLast(new long[] { System.nanoTime(), metrics.getProcessedArtifacts() });
+        while (samples.size() > SAMPLES) {
+            samples.removeFirst();
+        }
+    }
+
+    private synchronized void write(String state) {
+        long expected = getExpectedArtifacts();
+        long processed = metrics.getProcessedArtifacts();
+        String json = new StringJoiner("," + LINE_SEPARATOR + "  ", "{" + LINE_SEPARATOR + "  ", LINE_SEPARATOR + "}" + LINE_SEPARATOR)
+            .add("\"url\": " + JsonFile.quote(url))
+            .add("\"state\": " + JsonFile.quote(state))
+            .add("\"started\": " + JsonFile.quote(started.toString()))
+            .add("\"updated\": " + JsonFile.quote(Instant.now()
+                .toString()))
+            .add("\"totalHits\": " + totalHits)
+            .add("\"indexComplete\": " + metrics.isIndexComplete())
+            .add("\"expected\": " + expected)
+            .add("\"processed\": " + processed)
+            .add("\"skipped\": " + metrics.getFilterRejects())
+            .add("\"failed\": " + metrics.getFailedFetches())
+            .add("\"percent\": " + String.format(Locale.ROOT, "%.1f", expected > 0 ? Math.min(100d, processed * 100d / expected) : 0d))
+            .add("\"rate\": " + String.format(Locale.ROOT, "%.2f", getRate()))
+            .add("\"etaSeconds\": " + getEta().map(eta -> Long.toString(eta.getSeconds()))
+                .orElse("null"))
+            .toString();
+        try {
+            JsonFile.write(statusFile, json);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write scan status to '" + statusFile.getAbsolutePath() + "'.", e);
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * Determines the artifacts of a repository in the local file system by walking its directories in parallel, used if the repository does
+ * not provide a Maven index.
+ * <p>
+ * A directory is considered as version directory if it contains files named <code>artifactId-version[-classifier].extension</code>, where
+ * artifactId and version are the names of its parent directory and the directory itself. The packaging of an artifact without classifier
+ * is read from the POM of its version (defaulting to <code>jar</code>), the packaging of an artifact with classifier is derived from its
+ * extension. A POM is only reported if there is no other artifact of the same version without classifier.
+ * <p>
+ * The artifacts are published per directory to a bounded queue while walking, i.e. the walk is blocked while the consumer is busy and the
+ * number of artifacts is not known before. The walk runs on its own {@link ForkJoinPool} which is shut down when the walk has completed or
+ * the walker is closed.
+ */
+final class RepositoryDirectoryWalker implements Iterable<ArtifactInfo>, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RepositoryDirectoryWalker.class);
+
+    private static final String EXTENSION_POM = "pom";
+
+    private static final String DEFAULT_PACKAGING = "jar";
+
+    private static final String EXPRESSION_PREFIX = "${";
+
+    private static final String SNAPSHOT = "SNAPSHOT";
+
+    private static final Pattern TIMESTAMPED_SNAPSHOT = Pattern.compile("-\\d{8}\\.\\d{6}-\\d+");
+
+    /**
+     * The extensions of checksums, signatures and files created by Maven in local repositories.
+     */
+    private static final Set<String> IGNORED_EXTENSIONS = new HashSet<>(
+        Arrays.asList(".md5", ".sha1", ".sha256", ".sha512", ".asc", ".lastUpdated", ".repositories"));
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
+    private static final long PUBLISH_TIMEOUT_MILLIS = 100;
+
+    /**
+     * Marks the end of the walk in the queue.
+     */
+    private static final List<ArtifactInfo> END = new ArrayList<>(0);
+
+    private final Path root;
+
+    private final long startDateMillis;
+
+    private final BlockingQueue<List<ArtifactInfo>> directories;
+
+    private final ForkJoinPool pool;
+
+    private final long start = System.nanoTime();
+
+    private volatile Throwable failure;
+
+    private volatile boolean closed;
+
+    private boolean iterated;
+
+    private RepositoryDirectoryWalker(Path root, long startDateMillis, int threads, int capacity) {
+        this.root = root;
+        this.startDateMillis = startDateMillis;
+        this.directories = new ArrayBlockingQueue<>(capacity);
+        this.pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(RepositoryDirectoryWalker.class.getSimpleName() + "-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Starts walking the given repository directory.
+     *
+     * @param root
+     *     The repository root directory.
+     * @param startDateMillis
+     *     Only artifacts modified after this timestamp are reported.
+     * @param threads
+     *     The number of threads walking the directories.
+     * @param capacity
+     *     The maximum number of directories whose artifacts are waiting to be consumed.
+     * @return The {@link ArtifactSearchResult} of unknown size. Iterating fails with an {@link UncheckedIOException} if a directory cannot
+     *     be read.
+     */
+    static ArtifactSearchResult walk(Path root, long startDateMillis, int threads, int capacity) {
+        RepositoryDirectoryWalker walker = new RepositoryDirectoryWalker(root, startDateMillis, threads, capacity);
+        walker.pool.execute(walker::run);
+        return new ArtifactSearchResult(walker, 0);
+    }
+
+    /**
+     * Walks the directories, publishes the end of the walk and shuts down the pool.
+     */
+    private void run() {
+        try {
+            new DirectoryTask(root).invoke();
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+        try {
+            publish(END);
+        } catch (CancellationException e) {
+            LOGGER.debug("Stopped walking repository directory {}.", root);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Return the {@link Iterator} over the artifacts found by the walk, the artifacts can only be iterated once.
+     *
+     * @return The {@link Iterator}.
+     */
+    @Override
+    public Iterator<ArtifactInfo> iterator() {
+        if (iterated) {
+            throw new IllegalStateException("The artifacts of the repository directory " + root + " have already been iterated.");
+        }
+        iterated = true;
+        return new Iterator<ArtifactInfo>() {
+
+            private Iterator<ArtifactInfo> directory = Collections.emptyIterator();
+
+            private long count;
+
+            private boolean completed;
+
+            @Override
+            public boolean hasNext() {
+                while (!directory.hasNext()) {
+                    if (completed) {
+                        return false;
+                    }
+                    List<ArtifactInfo> artifactInfos;
+                    try {
+                        artifactInfos = directories.take();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread()
+                            .interrupt();
+                        throw new UncheckedIOException(new InterruptedIOException("Interrupted while walking repository directory " + root));
+                    }
+                    if (artifactInfos == END) {
+                        completed = true;
+                        if (failure != null) {
+                            throw failure instanceof UncheckedIOException ?
+                                (UncheckedIOException) failure :
+                                new UncheckedIOException(new IOException("Cannot walk repository directory " + root, failure));
+                        }
+                        LOGGER.info("Found {} artifacts in {} ms.", count, (System.nanoTime() - start) / 1_000_000);
+                        return false;
+                    }
+                    count += artifactInfos.size();
+                    directory = artifactInfos.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public ArtifactInfo next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return directory.next();
+            }
+        };
+    }
+
+    /**
+     * Stops the walk if it is still running.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        pool.shutdownNow();
+        directories.clear();
+    }
+
+    /**
+     * Publishes the artifacts of a directory, waiting while the queue is full as long as the walker is not closed.
+     *
+     * @param artifactInfos
+     *     The artifacts of a directory.
+     */
+    private void publish(List<ArtifactInfo> artifactInfos) {
+        try {
+            while (!directories.offer(artifactInfos, PUBLISH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (closed) {
+                    throw new CancellationException("The walker of the repository directory " + root + " has been closed.");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread()
+                .interrupt();
+            throw new CancellationException("The walk of the repository directory " + root + " has been interrupted.");
+        }
+    }
+
+    /**
+     * Reads a directory, forks a task for each sub-directory and publishes the artifacts contained in the directory.
+     */
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path directory;
+
+        private DirectoryTask(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected void compute() {
+            List<DirectoryTask> subTasks = new ArrayList<>();
+            Map<Path, BasicFileAttributes> files = new LinkedHashMap<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (entry.getFileName()
+                        .toString()
+                        .startsWith(".")) {
+                        // e.g. .index, .cache or .meta
+                        continue;
+                    }
+                    BasicFileAttributes attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    if (attributes.isDirectory()) {
+                        subTasks.add(new DirectoryTask(entry));
+                    } else if (attributes.isRegularFile()) {
+                        files.put(entry, attributes);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read directory " + directory, e);
+            }
+            if (!files.isEmpty()) {
+                List<ArtifactInfo> artifactInfos = collect(files);
+                if (!artifactInfos.isEmpty()) {
+                    publish(artifactInfos);
+                }
+            }
+            invokeAll(subTasks);
+        }
+
+        /**
+         * Collects the artifacts represented by the given files if the directory is a version directory.
+         *
+         * @param files
+         *     The files of the directory.
+         * @return The artifacts modified after the start date.
+         */
+        private List<ArtifactInfo> collect(Map<Path, BasicFileAttributes> files) {
+            List<ArtifactInfo> artifactInfos = new ArrayList<>();
+            Path artifactDirectory = directory.getParent();
+            Path groupDirectory = artifactDirectory != null ? artifactDirectory.getParent() : null;
+            if (groupDirectory == null || !groupDirectory.startsWith(root) || groupDirectory.equals(root)) {
+                return artifactInfos;
+            }
+            String groupId = root.relativize(groupDirectory)
+                .toString()
+                .replace(groupDirectory.getFileSystem()
+                    .getSeparator(), ".");
+            String artifactId = artifactDirectory.getFileName()
+                .toString();
+            String directoryVersion = directory.getFileName()
+                .toString();
+            List<ArtifactInfo> poms = new ArrayList<>();
+            Map<String, Path> pomFiles = new HashMap<>();
+            List<ArtifactInfo> mainArtifacts = new ArrayList<>();
+            Set<String> mainArtifactVersions = new HashSet<>();
+            for (Map.Entry<Path, BasicFileAttributes> entry : files.entrySet()) {
+                ArtifactInfo artifactInfo = toArtifactInfo(entry.getKey(), entry.getValue(), groupId, artifactId, directoryVersion);
+                if (artifactInfo == null) {
+                    continue;
+                }
+                if (artifactInfo.getClassifier() != null) {
+                    artifactInfo.setPackaging(artifactInfo.getFileExtension());
+                    add(artifactInfo, artifactInfos);
+                } else if (EXTENSION_POM.equals(artifactInfo.getFileExtension())) {
+                    artifactInfo.setPackaging(EXTENSION_POM);
+                    poms.add(artifactInfo);
+                    pomFiles.put(artifactInfo.getVersion(), entry.getKey());
+                } else {
+                    mainArtifactVersions.add(artifactInfo.getVersion());
+                    mainArtifacts.add(artifactInfo);
+                }
+            }
+            // snapshot directories may contain several timestamped versions, each with its own POM
+            for (ArtifactInfo mainArtifact : mainArtifacts) {
+                mainArtifact.setPackaging(readPackaging(pomFiles.get(mainArtifact.getVersion())));
+                add(mainArtifact, artifactInfos);
+            }
+            for (ArtifactInfo pom : poms) {
+                if (!mainArtifactVersions.contains(pom.getVersion())) {
+                    add(pom, artifactInfos);
+                }
+            }
+            return artifactInfos;
+        }
+
+        private void add(ArtifactInfo artifactInfo, List<ArtifactInfo> artifactInfos) {
+            if (artifactInfo.getLastModified() > startDateMillis) {
+                artifactInfos.add(artifactInfo);
+            }
+        }
+
+        /**
+         * Creates an {@link ArtifactInfo} for the given file.
+         *
+         * @return The {@link ArtifactInfo} or <code>null</code> if the file does not represent an artifact (e.g. checksums or metadata).
+         */
+        private ArtifactInfo toArtifactInfo(Path file, BasicFileAttributes attributes, String groupId, String artifactId, String directoryVersion) {
+            String fileName = file.getFileName()
+                .toString();
+            int extensionStart = fileName.lastIndexOf('.');
+            if (extensionStart < 0 || IGNORED_EXTENSIONS.contains(fileName.substring(extensionStart)) || !fileName.startsWith(artifactId + "-")) {
+                return null;
+            }
+            String remainder = fileName.substring(artifactId.length() + 1);
+            String version = getVersion(remainder, directoryVersion);
+            if (version == null) {
+                return null;
+            }
+            remainder = remainder.substring(version.length());
+            String classifier = null;
+            if (remainder.startsWith("-")) {
+                int classifierEnd = remainder.indexOf('.');
+                if (classifierEnd < 0) {
+                    return null;
+                }
+                classifier = remainder.substring(1, classifierEnd);
+                remainder = remainder.substring(classifierEnd);
+            }
+            if (!remainder.startsWith(".") || remainder.length() < 2) {
+                return null;
+            }
+            String extension = remainder.substring(1);
+            ArtifactInfo artifactInfo = new ArtifactInfo(null, groupId, artifactId, version, classifier, extension);
+            artifactInfo.setLastModified(attributes.lastModifiedTime()
+                .toMillis());
+            artifactInfo.setSize(attributes.size());
+            artifactInfo.setSha1(readSha1(file));
+            return artifactInfo;
+        }
+
+        /**
+         * Determines the version of a file name without the artifactId prefix, i.e. either the version of the directory or a timestamped
+         * snapshot version.
+         */
+        private String getVersion(String remainder, String directoryVersion) {
+            if (directoryVersion.endsWith("-" + SNAPSHOT)) {
+                String baseVersion = directoryVersion.substring(0, directoryVersion.length() - SNAPSHOT.length() - 1);
+                if (remainder.startsWith(baseVersion)) {
+                    Matcher matcher = TIMESTAMPED_SNAPSHOT.matcher(remainder)
+                        .region(baseVersion.length(), remainder.length());
+                    if (matcher.lookingAt()) {
+                        return remainder.substring(0, matcher.end());
+                    }
+                }
+            }
+            if (remainder.startsWith(directoryVersion) && remainder.length() > directoryVersion.length()) {
+                char next = remainder.charAt(directoryVersion.length());
+                if (next == '.' || next == '-') {
+                    return directoryVersion;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Reads the packaging declared by the given POM.
+         *
+         * @return The packaging or <code>jar</code> if the POM does not exist or does not declare a packaging.
+         */
+        private String readPackaging(Path pomFile) {
+            if (pomFile == null) {
+                return DEFAULT_PACKAGING;
+            }
+            try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(pomFile))) {
+                XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+                try {
+                    reader.nextTag();
+                    int depth = 1;
+                    while (depth > 0) {
+                        int event = reader.next();
+                        if (event == START_ELEMENT) {
+                            if (depth == 1 && "packaging".equals(reader.getLocalName())) {
+                                String packaging = reader.getElementText()
+                                    .trim();
+                                return packaging.isEmpty() || packaging.contains(EXPRESSION_PREFIX) ? DEFAULT_PACKAGING : packaging;
+                            }
+                            depth++;
+                        } else if (event == END_ELEMENT) {
+                            depth--;
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (IOException | XMLStreamException e) {
+                LOGGER.debug("Cannot read packaging from POM {}.", pomFile, e);
+            }
+            return DEFAULT_PACKAGING;
+        }
+
+        /**
+         * Reads the SHA-1 checksum from the <code>.sha1</code> file next to the given file.
+         *
+         * @return The checksum or <code>null</code> if it is not available.
+         */
+        private String readSha1(Path file) {
+            Path sha1File = file.resolveSibling(file.getFileName() + ".sha1");
+            if (!Files.isRegularFile(sha1File)) {
+                return null;
+            }
+            try (BufferedReader reader = Files.newBufferedReader(sha1File, StandardCharsets.US_ASCII)) {
+                String line = reader.readLine();
+                String sha1 = line != null ? line.trim() : "";
+                return sha1.length() >= 40 ? sha1.substring(0, 40) : null;
+            } catch (IOException e) {
+                LOGGER.debug("Cannot read checksum file {}.", sha1File, e);
+                return null;
+            }
+        }
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+}
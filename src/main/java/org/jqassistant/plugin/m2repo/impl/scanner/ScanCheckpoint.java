@@ -0,0 +1,122 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import com.buschmais.jqassistant.core.store.api.Store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A checkpoint of a running scan, persisted as a marker file in the local repository.
+ * <p>
+ * The artifacts processed so far are committed to the {@link Store} with each checkpoint, the marker file records that a scan of the
+ * repository has been started but not completed. If it exists when a scan starts, the previous scan has been interrupted and the committed
+ * artifacts can be skipped.
+ */
+class ScanCheckpoint {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanCheckpoint.class);
+
+    private static final String FILE_NAME = ".scan-checkpoint";
+
+    private static final String PROPERTY_URL = "url";
+    private static final String PROPERTY_STARTED = "started";
+    private static final String PROPERTY_PROCESSED = "processed";
+    private static final String PROPERTY_UPDATED = "updated";
+
+    private final File file;
+
+    private final Properties properties;
+
+    private final boolean resumed;
+
+    private ScanCheckpoint(File file, Properties properties, boolean resumed) {
+        this.file = file;
+        this.properties = properties;
+        this.resumed = resumed;
+    }
+
+    /**
+     * Opens the checkpoint for a repository, i.e. loads an existing checkpoint of an interrupted scan or creates a new one.
+     *
+     * @param directory
+     *     The directory of the local repository.
+     * @param url
+     *     The URL of the repository.
+     * @return The {@link ScanCheckpoint}.
+     */
+    static ScanCheckpoint open(File directory, String url) {
+        File file = new File(directory, FILE_NAME);
+        Properties properties = new Properties();
+        if (file.exists()) {
+            try (InputStream inputStream = new FileInputStream(file)) {
+                properties.load(inputStream);
+            } catch (IOException e) {
+                LOGGER.warn("Cannot read scan checkpoint from '" + file.getAbsolutePath() + "', ignoring it.", e);
+                properties.clear();
+            }
+            if (url.equals(properties.getProperty(PROPERTY_URL))) {
+                LOGGER.info("Resuming interrupted scan of '{}' started at {} ({} artifacts processed).", url,
+                    properties.getProperty(PROPERTY_STARTED), properties.getProperty(PROPERTY_PROCESSED));
+                return new ScanCheckpoint(file, properties, true);
+            }
+            properties.clear();
+        }
+        properties.setProperty(PROPERTY_URL, url);
+        properties.setProperty(PROPERTY_STARTED, Long.toString(System.currentTimeMillis()));
+        ScanCheckpoint checkpoint = new ScanCheckpoint(file, properties, false);
+        checkpoint.write(0);
+        return checkpoint;
+    }
+
+    /**
+     * Determines if an interrupted scan is resumed.
+     *
+     * @return <code>true</code> if an interrupted scan is resumed.
+     */
+    boolean isResumed() {
+        return resumed;
+    }
+
+    /**
+     * Commits the current transaction of the {@link Store} and records the checkpoint.
+     *
+     * @param store
+     *     The {@link Store}.
+     * @param processed
+     *     The number of artifacts processed by the current scan.
+     */
+    void commit(Store store, long processed) {
+        if (store.hasActiveTransaction()) {
+            store.commitTransaction();
+            store.beginTransaction();
+        }
+        write(processed);
+    }
+
+    /**
+     * Removes the checkpoint after the scan has been completed.
+     */
+    void complete() {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            LOGGER.warn("Cannot delete scan checkpoint '" + file.getAbsolutePath() + "'.", e);
+        }
+    }
+
+    private void write(long processed) {
+        properties.setProperty(PROPERTY_PROCESSED, Long.toString(processed));
+        properties.setProperty(PROPERTY_UPDATED, Long.toString(System.currentTimeMillis()));
+        file.getParentFile()
+            .mkdirs();
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            properties.store(outputStream, "Checkpoint of a running repository scan");
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write scan checkpoint to '" + file.getAbsolutePath() + "'.", e);
+        }
+    }
+}
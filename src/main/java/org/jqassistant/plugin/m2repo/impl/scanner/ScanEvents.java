@@ -0,0 +1,90 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The Java Flight Recorder events emitted by the stages of a scan.
+ * <p>
+ * The events are disabled unless a recording enables them, callers populate the fields only if {@link Event#shouldCommit()} returns
+ * <code>true</code>.
+ */
+final class ScanEvents {
+
+    private static final String CATEGORY = "jQAssistant";
+    private static final String SUB_CATEGORY = "Maven Repository";
+
+    static final String OUTCOME_SUCCESS = "success";
+    static final String OUTCOME_FAILURE = "failure";
+
+    private ScanEvents() {
+    }
+
+    @Name("org.jqassistant.plugin.m2repo.FetchArtifact")
+    @Label("Fetch Artifact")
+    @Description("Fetches an artifact or POM from the repository")
+    @Category({ CATEGORY, SUB_CATEGORY })
+    static final class FetchArtifact extends Event {
+
+        @Label("Coordinates")
+        String coordinates;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("org.jqassistant.plugin.m2repo.BuildModel")
+    @Label("Build Model")
+    @Description("Builds the effective model of a POM")
+    @Category({ CATEGORY, SUB_CATEGORY })
+    static final class BuildModel extends Event {
+
+        @Label("POM")
+        String pom;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("org.jqassistant.plugin.m2repo.ScanArtifact")
+    @Label("Scan Artifact")
+    @Description("Scans an artifact or POM into the store")
+    @Category({ CATEGORY, SUB_CATEGORY })
+    static final class ScanArtifact extends Event {
+
+        @Label("Coordinates")
+        String coordinates;
+
+        @Label("Size")
+        @DataAmount
+        long bytes;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("org.jqassistant.plugin.m2repo.Flush")
+    @Label("Flush")
+    @Description("Writes buffered dependencies and flushes the store")
+    @Category({ CATEGORY, SUB_CATEGORY })
+    static final class Flush extends Event {
+
+        @Label("Processed Artifacts")
+        long processedArtifacts;
+
+        @Label("Outcome")
+        String outcome;
+    }
+}
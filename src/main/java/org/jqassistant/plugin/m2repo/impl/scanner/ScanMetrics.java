@@ -0,0 +1,480 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counters and timers for the stages of a scan, updated concurrently by the fetching threads and the scanning thread.
+ * <p>
+ * While a scan is running the metrics are registered as MBean (see {@link ScanMetricsMXBean}).
+ */
+class ScanMetrics implements ScanMetricsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScanMetrics.class);
+
+    private static final String OBJECT_NAME = "org.jqassistant.plugin.m2repo:type=ScanMetrics";
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * The number of slowest operations kept per stage.
+     */
+    private static final int SLOWEST_OPERATIONS = 10;
+
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    private final Stage indexIteration = new Stage("index iteration");
+    private final LongAdder filterAccepts = new LongAdder();
+    private final LongAdder filterRejects = new LongAdder();
+    private final Stage pomFetch = new Stage("POM fetch");
+    private final Stage artifactFetch = new Stage("artifact fetch");
+    private final LongAdder failedFetches = new LongAdder();
+    private final LongAdder bytesFetched = new LongAdder();
+    private final Stage modelBuild = new Stage("model build");
+    private final Stage modelScan = new Stage("model scan");
+    private final Stage contentScan = new Stage("content scan");
+    private final Stage dependencyWrite = new Stage("dependency write");
+    private final Stage flush = new Stage("flush");
+    private final LongAdder processedArtifacts = new LongAdder();
+
+    private volatile boolean indexComplete = false;
+    private volatile IntSupplier queueDepth = () -> 0;
+    private volatile Supplier<CacheStats> modelCacheStats = CacheStats::empty;
+    private volatile Supplier<CacheStats> parentModelCacheStats = CacheStats::empty;
+
+    private ObjectName objectName;
+
+    /**
+     * A stage of the scan, counting its executions, accumulating their durations in a {@link LatencyHistogram} and keeping the
+     * {@link SlowestOperations}.
+     */
+    final class Stage {
+
+        private final String name;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private final SlowestOperations slowest = new SlowestOperations(SLOWEST_OPERATIONS);
+
+        private Stage(String name) {
+            this.name = name;
+            stages.add(this);
+        }
+
+        /**
+         * Records an execution of the stage.
+         *
+         * @param startNanos
+         *     The start of the execution as provided by {@link System#nanoTime()}.
+         */
+        void record(long startNanos) {
+            record(startNanos, null);
+        }
+
+        /**
+         * Records an execution of the stage for the given subject.
+         *
+         * @param startNanos
+         *     The start of the execution as provided by {@link System#nanoTime()}.
+         * @param subject
+         *     The subject of the execution (e.g. an artifact) to report if it is one of the slowest, may be <code>null</code>.
+         */
+        void record(long startNanos, Object subject) {
+            long duration = System.nanoTime() - startNanos;
+            nanos.add(duration);
+            count.increment();
+            histogram.record(duration);
+            if (subject != null) {
+                slowest.offer(duration, subject);
+            }
+        }
+
+        long getCount() {
+            return count.sum();
+        }
+
+        long getMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(nanos.sum());
+        }
+
+        /**
+         * Return the throughput of the stage.
+         *
+         * @return The executions per second.
+         */
+        double getRate() {
+            long sum = nanos.sum();
+            return sum > 0 ? count.sum() * 1_000_000_000d / sum : 0d;
+        }
+    }
+
+    Stage indexIteration() {
+        return indexIteration;
+    }
+
+    Stage pomFetch() {
+        return pomFetch;
+    }
+
+    Stage artifactFetch() {
+        return artifactFetch;
+    }
+
+    Stage modelBuild() {
+        return modelBuild;
+    }
+
+    Stage modelScan() {
+        return modelScan;
+    }
+
+    Stage contentScan() {
+        return contentScan;
+    }
+
+    Stage dependencyWrite() {
+        return dependencyWrite;
+    }
+
+    Stage flush() {
+        return flush;
+    }
+
+    void filterAccepted() {
+        filterAccepts.increment();
+    }
+
+    void filterRejected() {
+        filterRejects.increment();
+    }
+
+    void indexCompleted() {
+        indexComplete = true;
+    }
+
+    void fetchFailed() {
+        failedFetches.increment();
+    }
+
+    void bytesFetched(long bytes) {
+        bytesFetched.add(bytes);
+    }
+
+    void artifactProcessed() {
+        processedArtifacts.increment();
+    }
+
+    void setQueueDepth(IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    void setModelCacheStats(Supplier<CacheStats> modelCacheStats) {
+        this.modelCacheStats = modelCacheStats;
+    }
+
+    void setParentModelCacheStats(Supplier<CacheStats> parentModelCacheStats) {
+        this.parentModelCacheStats = parentModelCacheStats;
+    }
+
+    /**
+     * Registers the metrics as MBean on the platform {@link MBeanServer}.
+     */
+    void register() {
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            if (mBeanServer.isRegistered(name)) {
+                LOGGER.warn("Scan metrics are already registered as '{}', another scan seems to be running.", name);
+            } else {
+                mBeanServer.registerMBean(this, name);
+                objectName = name;
+            }
+        } catch (JMException e) {
+            LOGGER.warn("Cannot register scan metrics.", e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics from the platform {@link MBeanServer}.
+     */
+    void unregister() {
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(objectName);
+            } catch (JMException e) {
+                LOGGER.warn("Cannot unregister scan metrics.", e);
+            }
+            objectName = null;
+        }
+    }
+
+    /**
+     * Creates a summary of the metrics for logging.
+     *
+     * @return The summary.
+     */
+    String summary() {
+        StringBuilder summary = new StringBuilder("Scan metrics:");
+        append(summary, indexIteration);
+        summary.append(String.format("%n  filter accepts: %d, filter rejects: %d", getFilterAccepts(), getFilterRejects()));
+        append(summary, pomFetch);
+        append(summary, artifactFetch);
+        summary.append(String.format("%n  failed fetches: %d, bytes fetched: %d", getFailedFetches(), getBytesFetched()));
+        append(summary, modelBuild);
+        append(summary, modelScan);
+        append(summary, contentScan);
+        append(summary, dependencyWrite);
+        append(summary, flush);
+        summary.append(String.format("%n  processed artifacts: %d, model cache hit rate: %.1f%%, parent model cache hit rate: %.1f%%",
+            getProcessedArtifacts(), getModelCacheHitRate() * 100, getParentModelCacheHitRate() * 100));
+        return summary.toString();
+    }
+
+    private static void append(StringBuilder summary, Stage stage) {
+        LatencyHistogram histogram = stage.histogram;
+        summary.append(String.format("%n  %s: %d in %d ms (%.1f/s), latency p50: %s, p90: %s, p99: %s, p99.9: %s, max: %s", stage.name,
+            stage.getCount(), stage.getMillis(), stage.getRate(), formatMicros(histogram.getValueAtPercentile(50)),
+            formatMicros(histogram.getValueAtPercentile(90)), formatMicros(histogram.getValueAtPercentile(99)),
+            formatMicros(histogram.getValueAtPercentile(99.9)), formatMicros(histogram.getMax())));
+    }
+
+    /**
+     * Creates a report of the slowest operations per stage for logging.
+     *
+     * @return The report.
+     */
+    String slowestOperations() {
+        StringBuilder report = new StringBuilder("Slowest operations:");
+        for (Stage stage : stages) {
+            List<SlowestOperations.Operation> operations = stage.slowest.get();
+            if (!operations.isEmpty()) {
+                report.append(String.format("%n  %s:", stage.name));
+                for (SlowestOperations.Operation operation : operations) {
+                    report.append(String.format("%n    %s %s", formatMicros(TimeUnit.NANOSECONDS.toMicros(operation.getNanos())),
+                        operation.getSubject()));
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the latency percentiles and the slowest operations of all stages as JSON file.
+     *
+     * @param file
+     *     The file.
+     */
+    void writeLatencyReport(File file) {
+        StringBuilder json = new StringBuilder("{").append(LINE_SEPARATOR)
+            .append("  \"stages\": [");
+        for (Iterator<Stage> stageIterator = stages.iterator(); stageIterator.hasNext(); ) {
+            Stage stage = stageIterator.next();
+            LatencyHistogram histogram = stage.histogram;
+            json.append(LINE_SEPARATOR)
+                .append("    {")
+                .append(LINE_SEPARATOR);
+            json.append("      \"stage\": ")
+                .append(JsonFile.quote(stage.name))
+                .append(",")
+                .append(LINE_SEPARATOR);
+            json.append("      \"count\": ")
+                .append(histogram.getCount())
+                .append(",")
+                .append(LINE_SEPARATOR);
+            for (double percentile : PERCENTILES) {
+                json.append("      \"p")
+                    .append(BigDecimal.valueOf(percentile)
+                        .stripTrailingZeros()
+                        .toPlainString())
+                    .append("Micros\": ")
+                    .append(histogram.getValueAtPercentile(percentile))
+                    .append(",")
+                    .append(LINE_SEPARATOR);
+            }
+            json.append("      \"maxMicros\": ")
+                .append(histogram.getMax())
+                .append(",")
+                .append(LINE_SEPARATOR);
+            json.append("      \"slowest\": [");
+            for (Iterator<SlowestOperations.Operation> operationIterator = stage.slowest.get()
+                .iterator(); operationIterator.hasNext(); ) {
+                SlowestOperations.Operation operation = operationIterator.next();
+                json.append(LINE_SEPARATOR)
+                    .append("        { \"micros\": ")
+                    .append(TimeUnit.NANOSECONDS.toMicros(operation.getNanos()))
+                    .append(", \"subject\": ")
+                    .append(JsonFile.quote(operation.getSubject()))
+                    .append(" }")
+                    .append(operationIterator.hasNext() ? "," : "");
+            }
+            json.append("]")
+                .append(LINE_SEPARATOR)
+                .append("    }")
+                .append(stageIterator.hasNext() ? "," : "");
+        }
+        json.append("]")
+            .append(LINE_SEPARATOR)
+            .append("}")
+            .append(LINE_SEPARATOR);
+        try {
+            JsonFile.write(file, json.toString());
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write latency report to '" + file.getAbsolutePath() + "'.", e);
+        }
+    }
+
+    private static String formatMicros(long micros) {
+        return micros < 1000 ? micros + " us" : String.format("%.1f ms", micros / 1000d);
+    }
+
+    @Override
+    public long getIndexHits() {
+        return indexIteration.getCount();
+    }
+
+    @Override
+    public long getIndexIterationMillis() {
+        return indexIteration.getMillis();
+    }
+
+    @Override
+    public boolean isIndexComplete() {
+        return indexComplete;
+    }
+
+    @Override
+    public long getFilterAccepts() {
+        return filterAccepts.sum();
+    }
+
+    @Override
+    public long getFilterRejects() {
+        return filterRejects.sum();
+    }
+
+    @Override
+    public long getPomFetches() {
+        return pomFetch.getCount();
+    }
+
+    @Override
+    public long getPomFetchMillis() {
+        return pomFetch.getMillis();
+    }
+
+    @Override
+    public long getArtifactFetches() {
+        return artifactFetch.getCount();
+    }
+
+    @Override
+    public long getArtifactFetchMillis() {
+        return artifactFetch.getMillis();
+    }
+
+    @Override
+    public long getFailedFetches() {
+        return failedFetches.sum();
+    }
+
+    @Override
+    public long getBytesFetched() {
+        return bytesFetched.sum();
+    }
+
+    @Override
+    public long getModelBuilds() {
+        return modelBuild.getCount();
+    }
+
+    @Override
+    public long getModelBuildMillis() {
+        return modelBuild.getMillis();
+    }
+
+    @Override
+    public long getModelScans() {
+        return modelScan.getCount();
+    }
+
+    @Override
+    public long getModelScanMillis() {
+        return modelScan.getMillis();
+    }
+
+    @Override
+    public long getContentScans() {
+        return contentScan.getCount();
+    }
+
+    @Override
+    public long getContentScanMillis() {
+        return contentScan.getMillis();
+    }
+
+    @Override
+    public long getDependencyWrites() {
+        return dependencyWrite.getCount();
+    }
+
+    @Override
+    public long getDependencyWriteMillis() {
+        return dependencyWrite.getMillis();
+    }
+
+    @Override
+    public long getFlushes() {
+        return flush.getCount();
+    }
+
+    @Override
+    public long getFlushMillis() {
+        return flush.getMillis();
+    }
+
+    @Override
+    public long getProcessedArtifacts() {
+        return processedArtifacts.sum();
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    @Override
+    public double getModelCacheHitRate() {
+        return modelCacheStats.get()
+            .hitRate();
+    }
+
+    @Override
+    public double getParentModelCacheHitRate() {
+        return parentModelCacheStats.get()
+            .hitRate();
+    }
+}
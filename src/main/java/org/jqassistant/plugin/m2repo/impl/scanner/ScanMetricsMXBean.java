@@ -0,0 +1,60 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+/**
+ * The management interface exposing the {@link ScanMetrics} of a running scan via JMX.
+ * <p>
+ * Durations are accumulated over all threads of a stage and reported in milliseconds.
+ */
+public interface ScanMetricsMXBean {
+
+    long getIndexHits();
+
+    long getIndexIterationMillis();
+
+    boolean isIndexComplete();
+
+    long getFilterAccepts();
+
+    long getFilterRejects();
+
+    long getPomFetches();
+
+    long getPomFetchMillis();
+
+    long getArtifactFetches();
+
+    long getArtifactFetchMillis();
+
+    long getFailedFetches();
+
+    long getBytesFetched();
+
+    long getModelBuilds();
+
+    long getModelBuildMillis();
+
+    long getModelScans();
+
+    long getModelScanMillis();
+
+    long getContentScans();
+
+    long getContentScanMillis();
+
+    long getDependencyWrites();
+
+    long getDependencyWriteMillis();
+
+    long getFlushes();
+
+    long getFlushMillis();
+
+    long getProcessedArtifacts();
+
+    int getQueueDepth();
+
+    double getModelCacheHitRate();
+
+    double getParentModelCacheHitRate();
+
+}
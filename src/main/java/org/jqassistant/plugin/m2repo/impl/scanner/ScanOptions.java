@@ -0,0 +1,95 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.time.Duration;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * The options controlling a scan of an {@link ArtifactSearchResult}.
+ */
+@Builder(toBuilder = true)
+@Getter
+@ToString
+public class ScanOptions {
+
+    /**
+     * If <code>true</code> the content of the artifacts is scanned, otherwise only the model.
+     */
+    private final boolean scanArtifacts;
+
+    /**
+     * The {@link ArtifactSelector} determining the artifacts to download for scanning.
+     */
+    @Builder.Default
+    private final ArtifactSelector artifactSelector = new ArtifactSelector(0, null, null);
+
+    /**
+     * If <code>false</code> downloaded artifacts are deleted after scanning.
+     */
+    @Builder.Default
+    private final boolean keepArtifacts = true;
+
+    /**
+     * The number of threads fetching artifacts from the repository.
+     */
+    @Builder.Default
+    private final int fetchThreads = 1;
+
+    /**
+     * The maximum number of fetched artifacts waiting to be scanned. Each of them holds its built model.
+     */
+    @Builder.Default
+    private final int queueCapacity = 1000;
+
+    /**
+     * The maximum number of model descriptors held by the model cache.
+     */
+    @Builder.Default
+    private final long modelCacheSize = 256;
+
+    /**
+     * The optional duration after the last access when a model descriptor is evicted from the model cache, <code>null</code> if entries shall
+     * not expire.
+     */
+    private final Duration modelCacheExpiry;
+
+    /**
+     * The maximum number of parent models and imported dependency management sections shared between model building requests.
+     */
+    @Builder.Default
+    private final long parentModelCacheSize = 512;
+
+    /**
+     * If <code>true</code> built effective models are persisted in the local repository and reused by later scans.
+     */
+    private final boolean persistEffectiveModels;
+
+    /**
+     * The duration after the last use when a persisted effective model is removed.
+     */
+    @Builder.Default
+    private final Duration persistedEffectiveModelExpiry = Duration.ofDays(30);
+
+    /**
+     * If <code>true</code> self-contained POMs are read by a streaming parser instead of building their effective models.
+     */
+    private final boolean streamModels;
+
+    /**
+     * If <code>true</code> artifacts with the SHA-1 checksum of an already scanned artifact are linked to its content instead of being scanned.
+     */
+    private final boolean linkDuplicateArtifacts;
+
+    /**
+     * If <code>true</code> the scan is committed in batches and an interrupted scan is resumed by the next scan.
+     */
+    private final boolean resumable;
+
+    /**
+     * If <code>true</code> the artifacts are scanned ordered by groupId, artifactId and version instead of the order of the index.
+     */
+    private final boolean sortArtifacts;
+
+}
@@ -0,0 +1,97 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Keeps the slowest operations of a stage, e.g. the coordinates of the POMs which took longest to build.
+ * <p>
+ * Offering an operation which is faster than all kept operations is cheap, i.e. does not require synchronization.
+ */
+class SlowestOperations {
+
+    private static final Comparator<Operation> BY_NANOS = Comparator.comparingLong(Operation::getNanos);
+
+    private final int limit;
+
+    private final PriorityQueue<Operation> operations;
+
+    /**
+     * The duration of the fastest kept operation if the limit has been reached.
+     */
+    private volatile long threshold = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param limit
+     *     The number of operations to keep.
+     */
+    SlowestOperations(int limit) {
+        this.limit = limit;
+        this.operations = new PriorityQueue<>(limit + 1, BY_NANOS);
+    }
+
+    /**
+     * Offers an operation.
+     *
+     * @param nanos
+     *     The duration of the operation in nanoseconds.
+     * @param subject
+     *     The subject of the operation (e.g. an artifact), converted to a {@link String} only if the operation is kept.
+     */
+    void offer(long nanos, Object subject) {
+        if (nanos <= threshold) {
+            return;
+        }
+        synchronized (operations) {
+            operations.add(new Operation(nanos, String.valueOf(subject)));
+            if (operations.size() > limit) {
+                operations.poll();
+            }
+            if (operations.size() == limit) {
+                threshold = operations.peek()
+                    .getNanos();
+            }
+        }
+    }
+
+    /**
+     * Return the kept operations.
+     *
+     * @return The operations, the slowest first.
+     */
+    List<Operation> get() {
+        List<Operation> result;
+        synchronized (operations) {
+            result = new ArrayList<>(operations);
+        }
+        result.sort(BY_NANOS.reversed());
+        return result;
+    }
+
+    /**
+     * An operation and its duration.
+     */
+    static final class Operation {
+
+        private final long nanos;
+
+        private final String subject;
+
+        private Operation(long nanos, String subject) {
+            this.nanos = nanos;
+            this.subject = subject;
+        }
+
+        long getNanos() {
+            return nanos;
+        }
+
+        String getSubject() {
+            return subject;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+
+/**
+ * Provides {@link ArtifactInfo}s ordered by groupId, artifactId, version, classifier and packaging, i.e. all artifacts of a GAV and all
+ * versions of a GA are provided consecutively.
+ * <p>
+ * The {@link ArtifactInfo}s are sorted in chunks of limited size, if they do not fit into a single chunk the sorted chunks are spilled to
+ * temporary files which are merged while iterating.
+ */
+class SortedArtifactInfos implements Iterable<ArtifactInfo>, Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SortedArtifactInfos.class);
+
+    private static final Comparator<String> NULLS_FIRST = nullsFirst(naturalOrder());
+
+    private static final Comparator<Entry> ORDER = comparing((Entry e) -> e.groupId, NULLS_FIRST).thenComparing(e -> e.artifactId, NULLS_FIRST)
+        .thenComparing(e -> e.version, NULLS_FIRST)
+        .thenComparing(e -> e.classifier, NULLS_FIRST)
+        .thenComparing(e -> e.packaging, NULLS_FIRST);
+
+    private final List<Entry> entries;
+
+    private final Path spillDirectory;
+
+    private final List<File> spillFiles;
+
+    private final int size;
+
+    private SortedArtifactInfos(List<Entry> entries, Path spillDirectory, List<File> spillFiles, int size) {
+        this.entries = entries;
+        this.spillDirectory = spillDirectory;
+        this.spillFiles = spillFiles;
+        this.size = size;
+    }
+
+    /**
+     * Sorts the given {@link ArtifactInfo}s.
+     *
+     * @param artifactInfos
+     *     The {@link ArtifactInfo}s.
+     * @param chunkSize
+     *     The maximum number of {@link ArtifactInfo}s sorted in memory.
+     * @param directory
+     *     The directory for temporary files.
+     * @return The {@link SortedArtifactInfos}.
+     * @throws IOException
+     *     If a chunk cannot be spilled, the already spilled chunks are deleted.
+     */
+    static SortedArtifactInfos sort(Iterable<ArtifactInfo> artifactInfos, int chunkSize, File directory) throws IOException {
+        List<Entry> chunk = new ArrayList<>();
+        List<File> spillFiles = new ArrayList<>();
+        Path spillDirectory = null;
+        int size = 0;
+        try {
+            for (ArtifactInfo artifactInfo : artifactInfos) {
+                chunk.add(new Entry(artifactInfo));
+                size++;
+                if (chunk.size() >= chunkSize) {
+                    if (spillDirectory == null) {
+                        directory.mkdirs();
+                        spillDirectory = Files.createTempDirectory(directory.toPath(), "sort");
+                    }
+                    spill(chunk, spillDirectory, spillFiles);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                delete(spillFiles, spillDirectory);
+            } catch (IOException deleteException) {
+                e.addSuppressed(deleteException);
+            }
+            throw e;
+        }
+        chunk.sort(ORDER);
+        LOGGER.info("Sorted {} artifacts ({} spilled chunks).", size, spillFiles.size());
+        return new SortedArtifactInfos(chunk, spillDirectory, spillFiles, size);
+    }
+
+    /**
+     * Return the number of {@link ArtifactInfo}s.
+     *
+     * @return The number of {@link ArtifactInfo}s.
+     */
+    int getSize() {
+        return size;
+    }
+
+    @Override
+    public Iterator<ArtifactInfo> iterator() {
+        List<Iterator<Entry>> sources = new ArrayList<>(spillFiles.size() + 1);
+        sources.add(entries.iterator());
+        for (File spillFile : spillFiles) {
+            sources.add(new SpillFileIterator(spillFile));
+        }
+        return new MergingIterator(sources);
+    }
+
+    @Override
+    public void close() throws IOException {
+        delete(spillFiles, spillDirectory);
+    }
+
+    private static void delete(List<File> spillFiles, Path spillDirectory) throws IOException {
+        for (File spillFile : spillFiles) {
+            Files.deleteIfExists(spillFile.toPath());
+        }
+        if (spillDirectory != null) {
+            Files.deleteIfExists(spillDirectory);
+        }
+    }
+
+    /**
+     * Sorts the given chunk and writes it to a new spill file, which is added to the given spill files before writing (i.e. it is deleted
+     * even if writing fails).
+     */
+    private static void spill(List<Entry> chunk, Path spillDirectory, List<File> spillFiles) throws IOException {
+        chunk.sort(ORDER);
+        File spillFile = spillDirectory.resolve("chunk-" + spillFiles.size())
+            .toFile();
+        spillFiles.add(spillFile);
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile)))) {
+            for (Entry entry : chunk) {
+                entry.write(output);
+            }
+        }
+        LOGGER.debug("Spilled {} artifacts to '{}'.", chunk.size(), spillFile.getAbsolutePath());
+    }
+
+    /**
+     * Merges sorted sources.
+     */
+    private static final class MergingIterator implements Iterator<ArtifactInfo> {
+
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((h1, h2) -> ORDER.compare(h1.entry, h2.entry));
+
+        private MergingIterator(List<Iterator<Entry>> sources) {
+            for (Iterator<Entry> source : sources) {
+                advance(source);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public ArtifactInfo next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.source);
+            return head.entry.toArtifactInfo();
+        }
+
+        private void advance(Iterator<Entry> source) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+    }
+
+    /**
+     * The current {@link Entry} of a source.
+     */
+    private static final class Head {
+
+        private final Entry entry;
+
+        private final Iterator<Entry> source;
+
+        private Head(Entry entry, Iterator<Entry> source) {
+            this.entry = entry;
+            this.source = source;
+        }
+    }
+
+    /**
+     * Reads the {@link Entry}s of a spill file.
+     */
+    private static final class SpillFileIterator implements Iterator<Entry> {
+
+        private final DataInputStream input;
+
+        private Entry next;
+
+        private SpillFileIterator(File spillFile) {
+            try {
+                this.input = new DataInputStream(new BufferedInputStream(new FileInputStream(spillFile)));
+            } catch (FileNotFoundException e) {
+                throw new UncheckedIOException("Cannot open spill file " + spillFile.getAbsolutePath(), e);
+            }
+            this.next = read();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Entry entry = next;
+            next = read();
+            return entry;
+        }
+
+        private Entry read() {
+            try {
+                return Entry.read(input);
+            } catch (EOFException e) {
+                close();
+                return null;
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException("Cannot read spill file.", e);
+            }
+        }
+
+        private void close() {
+            try {
+                input.close();
+            } catch (IOException e) {
+                LOGGER.debug("Cannot close spill file.", e);
+            }
+        }
+    }
+
+    /**
+     * The values of an {@link ArtifactInfo} required for scanning.
+     */
+    private static final class Entry {
+
+        private final String groupId;
+        private final String artifactId;
+        private final String version;
+        private final String classifier;
+        private final String packaging;
+        private final String fileExtension;
+        private final String sha1;
+        private final long lastModified;
+        private final long size;
+
+        private Entry(ArtifactInfo artifactInfo) {
+            this(artifactInfo.getGroupId(), artifactInfo.getArtifactId(), artifactInfo.getVersion(), artifactInfo.getClassifier(),
+                artifactInfo.getPackaging(), artifactInfo.getFileExtension(), artifactInfo.getSha1(), artifactInfo.getLastModified(),
+                artifactInfo.getSize());
+        }
+
+        private Entry(String groupId, String artifactId, String version, String classifier, String packaging, String fileExtension, String sha1,
+            long lastModified, long size) {
+            this.groupId = groupId;
+            this.artifactId = artifactId;
+            this.version = version;
+            this.classifier = classifier;
+            this.packaging = packaging;
+            this.fileExtension = fileExtension;
+            this.sha1 = sha1;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        private ArtifactInfo toArtifactInfo() {
+            ArtifactInfo artifactInfo = new ArtifactInfo(null, groupId, artifactId, version, classifier, fileExtension);
+            artifactInfo.setPackaging(packaging);
+            artifactInfo.setSha1(sha1);
+            artifactInfo.setLastModified(lastModified);
+            artifactInfo.setSize(size);
+            return artifactInfo;
+        }
+
+        private void write(DataOutputStream output) throws IOException {
+            writeString(output, groupId);
+            writeString(output, artifactId);
+            writeString(output, version);
+            writeString(output, classifier);
+            writeString(output, packaging);
+            writeString(output, fileExtension);
+            writeString(output, sha1);
+            output.writeLong(lastModified);
+            output.writeLong(size);
+        }
+
+        private static Entry read(DataInputStream input) throws IOException {
+            return new Entry(readString(input), readString(input), readString(input), readString(input), readString(input), readString(input),
+                readString(input), input.readLong(), input.readLong());
+        }
+
+        private static void writeString(DataOutputStream output, String value) throws IOException {
+            output.writeBoolean(value != null);
+            if (value != null) {
+                output.writeUTF(value);
+            }
+        }
+
+        private static String readString(DataInputStream input) throws IOException {
+            return input.readBoolean() ? input.readUTF() : null;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.EffectiveModel;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.PomModelBuilder;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Exclusion;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Repository;
+import org.apache.maven.model.building.DefaultModelProcessor;
+import org.apache.maven.model.io.DefaultModelReader;
+import org.apache.maven.model.superpom.DefaultSuperPomProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+/**
+ * A {@link PomModelBuilder} reading self-contained POMs with a streaming StAX parser.
+ * <p>
+ * Only the coordinates, packaging, name, description, url and the declared dependencies are read, the repositories, plugin repositories and
+ * managed plugins are contributed by the super POM. A POM which requires resolving inheritance or properties (i.e. declaring a parent,
+ * dependency management, profiles or containing property expressions) or declares a section which is scanned by the Maven 3 plugin but not
+ * read by the streaming parser (see {@link #DELEGATED_SECTIONS}) is passed to the delegate, which is expected to build the effective model.
+ * All other elements (e.g. scm or distribution management) are skipped.
+ */
+class StreamingPomModelBuilder implements PomModelBuilder {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StreamingPomModelBuilder.class);
+
+    private static final String EXPRESSION_PREFIX = "${";
+
+    private static final String DEFAULT_SCOPE = "compile";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
+    /**
+     * The sections which are scanned by the Maven 3 plugin but not read by the streaming parser.
+     */
+    private static final Set<String> DELEGATED_SECTIONS = new HashSet<>(
+        Arrays.asList("parent", "dependencyManagement", "profiles", "properties", "modules", "build", "licenses", "developers", "contributors",
+            "organization", "repositories", "pluginRepositories"));
+
+    private static final Model SUPER_MODEL = new DefaultSuperPomProvider().setModelProcessor(new DefaultModelProcessor().setModelReader(
+            new DefaultModelReader()))
+        .getSuperModel("4.0.0");
+
+    private final PomModelBuilder delegate;
+
+    private final LongAdder streamedModels = new LongAdder();
+
+    private final LongAdder delegatedModels = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param delegate
+     *     The {@link PomModelBuilder} for POMs requiring an effective model to be built.
+     */
+    StreamingPomModelBuilder(PomModelBuilder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Model getModel(File pomFile) throws IOException {
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(pomFile))) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            try {
+                Model model = readProject(reader);
+                addSuperModel(model);
+                streamedModels.increment();
+                return new StreamedModel(model);
+            } finally {
+                reader.close();
+            }
+        } catch (RequiresEffectiveModelException e) {
+            LOGGER.debug("Building effective model for {}: {}.", pomFile.getAbsolutePath(), e.getMessage());
+        } catch (XMLStreamException e) {
+            LOGGER.debug("Cannot stream model from " + pomFile.getAbsolutePath() + ", building effective model.", e);
+        }
+        delegatedModels.increment();
+        return delegate.getModel(pomFile);
+    }
+
+    /**
+     * Return the number of models which have been read by the streaming parser.
+     *
+     * @return The number of streamed models.
+     */
+    long getStreamedModels() {
+        return streamedModels.sum();
+    }
+
+    /**
+     * Return the number of models which have been passed to the delegate.
+     *
+     * @return The number of delegated models.
+     */
+    long getDelegatedModels() {
+        return delegatedModels.sum();
+    }
+
+    /**
+     * Determines if the given {@link Model} has been read by a {@link StreamingPomModelBuilder} instead of building the effective model.
+     *
+     * @param model
+     *     The {@link Model}.
+     * @return <code>true</code> if the {@link Model} has been streamed.
+     */
+    static boolean isStreamed(Model model) {
+        return model instanceof StreamedModel;
+    }
+
+    private Model readProject(XMLStreamReader reader) throws XMLStreamException, RequiresEffectiveModelException {
+        reader.nextTag();
+        if (!"project".equals(reader.getLocalName())) {
+            throw new RequiresEffectiveModelException("unexpected root element " + reader.getLocalName());
+        }
+        Model model = new Model();
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+            case "modelVersion":
+                model.setModelVersion(readText(reader));
+                break;
+            case "groupId":
+                model.setGroupId(readText(reader));
+                break;
+            case "artifactId":
+                model.setArtifactId(readText(reader));
+                break;
+            case "version":
+                model.setVersion(readText(reader));
+                break;
+            case "packaging":
+                model.setPackaging(readText(reader));
+                break;
+            case "name":
+                model.setName(readText(reader));
+                break;
+            case "description":
+                model.setDescription(readText(reader));
+                break;
+            case "url":
+                model.setUrl(readText(reader));
+                break;
+            case "dependencies":
+                readDependencies(reader, model);
+                break;
+            default:
+                if (DELEGATED_SECTIONS.contains(reader.getLocalName())) {
+                    throw new RequiresEffectiveModelException("declares " + reader.getLocalName());
+                }
+                skip(reader);
+            }
+        }
+        if (model.getGroupId() == null || model.getArtifactId() == null || model.getVersion() == null) {
+            throw new RequiresEffectiveModelException("incomplete coordinates");
+        }
+        return model;
+    }
+
+    /**
+     * Adds the repositories, plugin repositories and managed plugins contributed by the super POM to a streamed {@link Model}.
+     *
+     * @param model
+     *     The {@link Model}.
+     */
+    private void addSuperModel(Model model) {
+        for (Repository repository : SUPER_MODEL.getRepositories()) {
+            model.addRepository(repository.clone());
+        }
+        for (Repository pluginRepository : SUPER_MODEL.getPluginRepositories()) {
+            model.addPluginRepository(pluginRepository.clone());
+        }
+        Build superBuild = SUPER_MODEL.getBuild();
+        if (superBuild != null && superBuild.getPluginManagement() != null) {
+            Build build = new Build();
+            build.setPluginManagement(superBuild.getPluginManagement()
+                .clone());
+            model.setBuild(build);
+        }
+    }
+
+    private void readDependencies(XMLStreamReader reader, Model model) throws XMLStreamException, RequiresEffectiveModelException {
+        while (reader.nextTag() == START_ELEMENT) {
+            if ("dependency".equals(reader.getLocalName())) {
+                model.addDependency(readDependency(reader));
+            } else {
+                skip(reader);
+            }
+        }
+    }
+
+    private Dependency readDependency(XMLStreamReader reader) throws XMLStreamException, RequiresEffectiveModelException {
+        Dependency dependency = new Dependency();
+        while (reader.nextTag() == START_ELEMENT) {
+            switch (reader.getLocalName()) {
+            case "groupId":
+                dependency.setGroupId(readText(reader));
+                break;
+            case "artifactId":
+                dependency.setArtifactId(readText(reader));
+                break;
+            case "version":
+                dependency.setVersion(readText(reader));
+                break;
+            case "type":
+                dependency.setType(readText(reader));
+                break;
+            case "classifier":
+                dependency.setClassifier(readText(reader));
+                break;
+            case "scope":
+                dependency.setScope(readText(reader));
+                break;
+            case "optional":
+                dependency.setOptional(readText(reader));
+                break;
+            case "exclusions":
+                readExclusions(reader, dependency);
+                break;
+            default:
+                skip(reader);
+            }
+        }
+        if (dependency.getGroupId() == null || dependency.getArtifactId() == null || dependency.getVersion() == null) {
+            throw new RequiresEffectiveModelException("incomplete dependency coordinates");
+        }
+        if (dependency.getScope() == null) {
+            // the default value injected into effective models
+            dependency.setScope(DEFAULT_SCOPE);
+        }
+        return dependency;
+    }
+
+    private void readExclusions(XMLStreamReader reader, Dependency dependency) throws XMLStreamException, RequiresEffectiveModelException {
+        while (reader.nextTag() == START_ELEMENT) {
+            if ("exclusion".equals(reader.getLocalName())) {
+                Exclusion exclusion = new Exclusion();
+                while (reader.nextTag() == START_ELEMENT) {
+                    if ("groupId".equals(reader.getLocalName())) {
+                        exclusion.setGroupId(readText(reader));
+                    } else if ("artifactId".equals(reader.getLocalName())) {
+                        exclusion.setArtifactId(readText(reader));
+                    } else {
+                        skip(reader);
+                    }
+                }
+                dependency.addExclusion(exclusion);
+            } else {
+                skip(reader);
+            }
+        }
+    }
+
+    /**
+     * Reads the trimmed text of the current element.
+     *
+     * @param reader
+     *     The {@link XMLStreamReader} positioned at a start element.
+     * @return The text.
+     * @throws RequiresEffectiveModelException
+     *     If the text contains a property expression.
+     */
+    private String readText(XMLStreamReader reader) throws XMLStreamException, RequiresEffectiveModelException {
+        String text = reader.getElementText()
+            .trim();
+        if (text.contains(EXPRESSION_PREFIX)) {
+            throw new RequiresEffectiveModelException("contains expression " + text);
+        }
+        return text;
+    }
+
+    /**
+     * Skips the current element including all children.
+     *
+     * @param reader
+     *     The {@link XMLStreamReader} positioned at a start element.
+     */
+    private void skip(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * A {@link Model} read by the streaming parser.
+     */
+    private static final class StreamedModel extends EffectiveModel {
+
+        private StreamedModel(Model model) {
+            super(model);
+        }
+    }
+
+    /**
+     * Signals that a POM cannot be read by the streaming parser but requires building the effective model.
+     */
+    private static final class RequiresEffectiveModelException extends Exception {
+
+        private RequiresEffectiveModelException(String reason) {
+            super(reason, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+import org.jqassistant.plugin.m2repo.test.scanner.AbstractMavenRepositoryIT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies the asynchronous and batch requests of the {@link AetherArtifactProvider} and their delegation by the
+ * {@link NegativeCachingArtifactProvider} against the test repository server.
+ */
+class AetherArtifactProviderIT extends AbstractMavenRepositoryIT {
+
+    private static final Artifact JAR = new DefaultArtifact("com.buschmais.xo:xo.doc:jar:0.5.0-SNAPSHOT");
+
+    private static final Artifact POM = new DefaultArtifact("com.buschmais.xo:xo.doc:pom:0.5.0-SNAPSHOT");
+
+    private static final Artifact MISSING = new DefaultArtifact("com.buschmais.xo:xo.missing:jar:0.5.0-SNAPSHOT");
+
+    @TempDir
+    File workDirectory;
+
+    private AetherArtifactProvider artifactProvider;
+
+    @BeforeEach
+    void startRepository() throws IOException {
+        startServer("1");
+        artifactProvider = new AetherArtifactProvider(new URL(TEST_REPOSITORY_URL), workDirectory, 2);
+    }
+
+    @Test
+    void getArtifactAsync() {
+        CompletableFuture<ArtifactResult> jar = artifactProvider.getArtifactAsync(JAR);
+        CompletableFuture<ArtifactResult> pom = artifactProvider.getArtifactAsync(POM);
+        CompletableFuture<ArtifactResult> missing = artifactProvider.getArtifactAsync(MISSING);
+
+        assertResolved(jar.join());
+        assertResolved(pom.join());
+        CompletionException completionException = assertThrows(CompletionException.class, missing::join);
+        assertNotFound(completionException.getCause());
+    }
+
+    @Test
+    void getArtifacts() {
+        List<ArtifactResult> artifactResults = artifactProvider.getArtifacts(Arrays.asList(JAR, MISSING, POM));
+
+        assertThat(artifactResults, hasSize(3));
+        assertResolved(artifactResults.get(0));
+        assertThat(artifactResults.get(1)
+            .isResolved(), equalTo(false));
+        assertThat(artifactResults.get(1)
+            .getExceptions(), everyItem(instanceOf(ArtifactNotFoundException.class)));
+        assertResolved(artifactResults.get(2));
+    }
+
+    @Test
+    void negativeCache() throws ArtifactResolutionException {
+        ArtifactProvider negativeCachingArtifactProvider = new NegativeCachingArtifactProvider(artifactProvider, Duration.ofMinutes(1));
+
+        CompletionException completionException = assertThrows(CompletionException.class,
+            negativeCachingArtifactProvider.getArtifactAsync(MISSING)::join);
+        Throwable notFound = completionException.getCause();
+        assertNotFound(notFound);
+
+        // the remembered exception is reported without delegating to the AetherArtifactProvider
+        assertThat(assertThrows(ArtifactResolutionException.class, () -> negativeCachingArtifactProvider.getArtifact(MISSING)),
+            sameInstance(notFound));
+        List<ArtifactResult> artifactResults = negativeCachingArtifactProvider.getArtifacts(Arrays.asList(MISSING, JAR));
+        assertThat(artifactResults, hasSize(2));
+        assertThat(artifactResults.get(0)
+            .getExceptions(), contains(sameInstance(notFound)));
+        assertResolved(artifactResults.get(1));
+        assertResolved(negativeCachingArtifactProvider.getArtifact(POM));
+        assertThat(negativeCachingArtifactProvider.getRepositoryRoot(), equalTo(artifactProvider.getRepositoryRoot()));
+    }
+
+    private void assertResolved(ArtifactResult artifactResult) {
+        assertThat(artifactResult.isResolved(), equalTo(true));
+        File file = artifactResult.getArtifact()
+            .getFile();
+        assertThat(file.exists(), equalTo(true));
+        assertThat(file.getAbsolutePath(), startsWith(artifactProvider.getRepositoryRoot()
+            .getAbsolutePath()));
+    }
+
+    private static void assertNotFound(Throwable throwable) {
+        assertThat(throwable, instanceOf(ArtifactResolutionException.class));
+        for (ArtifactResult artifactResult : ((ArtifactResolutionException) throwable).getResults()) {
+            assertThat(artifactResult.getExceptions(), everyItem(instanceOf(ArtifactNotFoundException.class)));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactFilter;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.PomModelBuilder;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.model.Model;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ArtifactTaskTest {
+
+    private static final int ARTIFACTS = 1000;
+
+    private static final int FETCH_THREADS = 4;
+
+    private static final String FETCH_THREAD_NAME = ArtifactTask.class.getSimpleName() + "-Fetch";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void consumerStops() throws IOException, InterruptedException {
+        BlockingQueue<ArtifactTask.Result> queue = new LinkedBlockingQueue<>(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        pool.submit(createTask(queue, pomFile -> new Model()));
+        for (int i = 0; i < 3; i++) {
+            queue.take();
+        }
+        // the consumer stops taking results and shuts down the task as ArtifactSearchResultScanner does on failures
+        pool.shutdownNow();
+
+        assertThat(pool.awaitTermination(10, TimeUnit.SECONDS), equalTo(true));
+        assertFetchThreadsTerminated();
+    }
+
+    @Test
+    void fetchThreadFails() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        BlockingQueue<ArtifactTask.Result> queue = new LinkedBlockingQueue<>(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> future = pool.submit(createTask(queue, pomFile -> {
+            if (pomFile.getName()
+                .startsWith("artifact3-")) {
+                throw new OutOfMemoryError("Simulated failure of a fetch thread");
+            }
+            return new Model();
+        }));
+        int results = 0;
+        while (queue.poll(10, TimeUnit.SECONDS) != ArtifactTask.Result.LAST) {
+            results++;
+        }
+        future.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        assertThat(results, lessThan(ARTIFACTS));
+        assertFetchThreadsTerminated();
+    }
+
+    private ArtifactTask createTask(BlockingQueue<ArtifactTask.Result> queue, PomModelBuilder modelBuilder) throws IOException {
+        File pomFile = directory.resolve("artifact.pom")
+            .toFile();
+        pomFile.createNewFile();
+        ArtifactProvider artifactProvider = new ArtifactProvider() {
+            @Override
+            public ArtifactResult getArtifact(Artifact artifact) {
+                File file = new File(directory.toFile(), artifact.getArtifactId() + "-" + artifact.getVersion() + ".pom");
+                return new ArtifactResult(new ArtifactRequest(artifact, null, null)).setArtifact(artifact.setFile(file.exists() ? file : pomFile));
+            }
+
+            @Override
+            public File getRepositoryRoot() {
+                return directory.toFile();
+            }
+        };
+        List<ArtifactInfo> artifactInfos = new ArrayList<>(ARTIFACTS);
+        for (int i = 0; i < ARTIFACTS; i++) {
+            String artifactId = "artifact" + (i % 10);
+            String version = Integer.toString(i);
+            new File(directory.toFile(), artifactId + "-" + version + ".pom").createNewFile();
+            ArtifactInfo artifactInfo = new ArtifactInfo(null, "group" + (i % 10), artifactId, version, null, "jar");
+            artifactInfo.setPackaging("jar");
+            artifactInfos.add(artifactInfo);
+        }
+        return new ArtifactTask(new ArtifactSearchResult(artifactInfos, ARTIFACTS), new ArtifactFilter(null, null), false,
+            new ArtifactSelector(0, null, null), queue, artifactProvider, FETCH_THREADS, new CoordinatePool(), modelBuilder,
+            CompletedArtifacts.NONE, new ScanMetrics());
+    }
+
+    private static void assertFetchThreadsTerminated() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (isFetchThreadAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(isFetchThreadAlive(), equalTo(false));
+    }
+
+    private static boolean isFetchThreadAlive() {
+        return Thread.getAllStackTraces()
+            .keySet()
+            .stream()
+            .anyMatch(thread -> FETCH_THREAD_NAME.equals(thread.getName()) && thread.isAlive());
+    }
+}
@@ -0,0 +1,37 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class CompletedArtifactsTest {
+
+    private static final int ARTIFACTS = 5000;
+
+    @Test
+    void none() {
+        assertThat(CompletedArtifacts.NONE.size(), equalTo(0));
+        assertThat(CompletedArtifacts.NONE.contains("org.jqassistant:artifact:jar:1.0.0"), equalTo(false));
+    }
+
+    @Test
+    void contains() {
+        CompletedArtifacts.Builder builder = new CompletedArtifacts.Builder();
+        for (int i = 0; i < ARTIFACTS; i++) {
+            builder.add(fqn(i));
+        }
+
+        CompletedArtifacts completedArtifacts = builder.build();
+
+        assertThat(completedArtifacts.size(), equalTo(ARTIFACTS));
+        for (int i = 0; i < ARTIFACTS; i++) {
+            assertThat(completedArtifacts.contains(fqn(i)), equalTo(true));
+            assertThat(completedArtifacts.contains(fqn(ARTIFACTS + i)), equalTo(false));
+        }
+    }
+
+    private static String fqn(int i) {
+        return "org.jqassistant:artifact" + i + ":jar:1.0.0";
+    }
+}
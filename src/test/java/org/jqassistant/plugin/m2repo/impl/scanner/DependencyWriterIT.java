@@ -0,0 +1,108 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.buschmais.jqassistant.plugin.common.api.model.DependsOnDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+import com.buschmais.xo.api.Query;
+
+import org.jqassistant.plugin.m2repo.test.scanner.AbstractMavenRepositoryIT;
+import org.junit.jupiter.api.Test;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies that the <code>DEPENDS_ON</code> relations written in batches by the {@link DependencyWriter} are equal to relations created one by
+ * one using the store.
+ */
+class DependencyWriterIT extends AbstractMavenRepositoryIT {
+
+    private static final String DEPENDS_ON = "MATCH (dependent:Maven:Artifact)-[dependsOn:DEPENDS_ON]->(dependency:Maven:Artifact) " //
+        + "RETURN dependent, dependency, dependsOn.scope AS scope, dependsOn.optional AS optional";
+
+    @Test
+    void batchEqualsStoreCreate() throws IOException, URISyntaxException {
+        try {
+            startServer("1");
+            getScanner().scan(new URI(TEST_REPOSITORY_URL), TEST_REPOSITORY_URL, MavenScope.REPOSITORY);
+        } finally {
+            stopServer();
+        }
+
+        store.beginTransaction();
+        List<Row> written = getRows();
+        store.executeQuery("MATCH ()-[dependsOn:DEPENDS_ON]->() DELETE dependsOn RETURN count(*) AS relations")
+            .getSingleResult();
+        store.commitTransaction();
+        assertThat(written, not(empty()));
+        assertThat(written.stream()
+            .map(row -> row.scope)
+            .collect(toList()), hasItem("test"));
+
+        store.beginTransaction();
+        for (Row row : written) {
+            DependsOnDescriptor dependsOnDescriptor = store.create(row.dependent, DependsOnDescriptor.class, row.dependency);
+            dependsOnDescriptor.setScope(row.scope);
+            dependsOnDescriptor.setOptional(row.optional);
+        }
+        store.commitTransaction();
+
+        store.beginTransaction();
+        List<Row> created = getRows();
+        store.commitTransaction();
+        assertThat(toStrings(created), equalTo(toStrings(written)));
+    }
+
+    private List<Row> getRows() {
+        List<Row> rows = new ArrayList<>();
+        for (Query.Result.CompositeRowObject row : store.executeQuery(DEPENDS_ON)) {
+            rows.add(new Row(row.get("dependent", MavenArtifactDescriptor.class), row.get("dependency", MavenArtifactDescriptor.class),
+                row.get("scope", String.class), row.get("optional", Boolean.class)));
+        }
+        return rows;
+    }
+
+    private static List<String> toStrings(List<Row> rows) {
+        return rows.stream()
+            .map(Row::toString)
+            .sorted()
+            .collect(toList());
+    }
+
+    /**
+     * A <code>DEPENDS_ON</code> relation including its properties.
+     */
+    private static final class Row {
+
+        private final MavenArtifactDescriptor dependent;
+
+        private final MavenArtifactDescriptor dependency;
+
+        private final String scope;
+
+        private final Boolean optional;
+
+        private Row(MavenArtifactDescriptor dependent, MavenArtifactDescriptor dependency, String scope, Boolean optional) {
+            this.dependent = dependent;
+            this.dependency = dependency;
+            this.scope = scope;
+            this.optional = optional;
+        }
+
+        @Override
+        public String toString() {
+            return id(dependent) + " -[" + scope + ", " + optional + "]-> " + id(dependency);
+        }
+
+        private static String id(MavenArtifactDescriptor artifact) {
+            return artifact.getFullQualifiedName();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import com.buschmais.jqassistant.core.test.plugin.AbstractPluginIT;
+import com.buschmais.jqassistant.plugin.maven3.api.model.MavenArtifactDescriptor;
+import com.buschmais.xo.api.Query;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies that a duplicate linked by the {@link DuplicateArtifactLinker} gets the content of the original but keeps its own coordinates, also
+ * if the coordinates of both differ in their shape (e.g. a repackaged <code>-all</code> JAR).
+ */
+class DuplicateArtifactLinkerIT extends AbstractPluginIT {
+
+    private static final String CREATE_ARTIFACT = "CREATE (artifact:Maven:Artifact{group:'org.jqassistant.test', name:$name, version:'1.0.0', " //
+        + "type:'jar', fqn:$fqn, fileName:$fileName}) " //
+        + "FOREACH (classifier IN CASE WHEN $classifier IS NULL THEN [] ELSE [$classifier] END | SET artifact.classifier = classifier) " //
+        + "RETURN artifact";
+
+    private static final String CREATE_CONTENT = "MATCH (original) WHERE id(original) = $original " //
+        + "SET original.valid = true " //
+        + "CREATE (original)-[:CONTAINS]->(:File{fileName:'/META-INF/MANIFEST.MF'}) " //
+        + "RETURN original";
+
+    private static final String LINKED = "MATCH (duplicate) WHERE id(duplicate) = $duplicate " //
+        + "OPTIONAL MATCH (duplicate)-[:CONTAINS]->(file) " //
+        + "RETURN duplicate.group AS group, duplicate.name AS name, duplicate.classifier AS classifier, duplicate.fqn AS fqn, " //
+        + "duplicate.fileName AS fileName, duplicate.valid AS valid, count(file) AS files";
+
+    @Test
+    void unclassifiedDuplicateOfClassifiedOriginal() {
+        store.beginTransaction();
+        MavenArtifactDescriptor original = createOriginal("repackaged", "all");
+        MavenArtifactDescriptor duplicate = createArtifact("artifact", null);
+
+        Query.Result.CompositeRowObject linked = link(original, duplicate);
+
+        assertThat(linked.get("classifier", String.class), nullValue());
+        assertThat(linked.get("name", String.class), equalTo("artifact"));
+        assertThat(linked.get("fqn", String.class), equalTo(fqn("artifact", null)));
+        assertContent(linked);
+        store.commitTransaction();
+    }
+
+    @Test
+    void classifiedDuplicateOfUnclassifiedOriginal() {
+        store.beginTransaction();
+        MavenArtifactDescriptor original = createOriginal("artifact", null);
+        MavenArtifactDescriptor duplicate = createArtifact("repackaged", "all");
+
+        Query.Result.CompositeRowObject linked = link(original, duplicate);
+
+        assertThat(linked.get("classifier", String.class), equalTo("all"));
+        assertThat(linked.get("name", String.class), equalTo("repackaged"));
+        assertThat(linked.get("fqn", String.class), equalTo(fqn("repackaged", "all")));
+        assertContent(linked);
+        store.commitTransaction();
+    }
+
+    private MavenArtifactDescriptor createOriginal(String name, String classifier) {
+        MavenArtifactDescriptor original = createArtifact(name, classifier);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("original", original.getId());
+        return store.executeQuery(CREATE_CONTENT, parameters)
+            .getSingleResult()
+            .get("original", MavenArtifactDescriptor.class);
+    }
+
+    private MavenArtifactDescriptor createArtifact(String name, String classifier) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("name", name);
+        parameters.put("classifier", classifier);
+        parameters.put("fqn", fqn(name, classifier));
+        parameters.put("fileName", fileName(name, classifier));
+        return store.executeQuery(CREATE_ARTIFACT, parameters)
+            .getSingleResult()
+            .get("artifact", MavenArtifactDescriptor.class);
+    }
+
+    private Query.Result.CompositeRowObject link(MavenArtifactDescriptor original, MavenArtifactDescriptor duplicate) {
+        DuplicateArtifactLinker duplicateArtifactLinker = new DuplicateArtifactLinker(store);
+        MavenArtifactDescriptor linked = duplicateArtifactLinker.link(original, duplicate, "/duplicate/artifact.jar");
+        assertThat(duplicateArtifactLinker.getLinkedArtifacts(), equalTo(1L));
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("duplicate", linked.getId());
+        return store.executeQuery(LINKED, parameters)
+            .getSingleResult();
+    }
+
+    private static void assertContent(Query.Result.CompositeRowObject linked) {
+        assertThat(linked.get("group", String.class), equalTo("org.jqassistant.test"));
+        assertThat(linked.get("fileName", String.class), equalTo("/duplicate/artifact.jar"));
+        assertThat(linked.get("valid", Boolean.class), equalTo(true));
+        assertThat(linked.get("files", Long.class), equalTo(1L));
+    }
+
+    private static String fqn(String name, String classifier) {
+        return "org.jqassistant.test:" + name + ":jar:" + (classifier != null ? classifier + ":" : "") + "1.0.0";
+    }
+
+    private static String fileName(String name, String classifier) {
+        return name + "-1.0.0" + (classifier != null ? "-" + classifier : "") + ".jar";
+    }
+}
@@ -0,0 +1,203 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies the reuse of effective models persisted by the {@link EffectiveModelBuilder} and the handling of resolved parent models.
+ */
+class EffectiveModelBuilderTest {
+
+    private static final Duration EXPIRY = Duration.ofDays(30);
+
+    private static final String GROUP_ID = "org.jqassistant.test";
+
+    @TempDir
+    Path repository;
+
+    @TempDir
+    Path cacheDirectory;
+
+    private File childPom;
+
+    /**
+     * The artifactIds of the models which are deleted after resolving them for the first time.
+     */
+    private final Set<String> deletedModels = new HashSet<>();
+
+    private final Map<String, Integer> resolutions = new HashMap<>();
+
+    @BeforeEach
+    void createRepository() throws IOException {
+        writePom("parent", "<packaging>pom</packaging>" + dependency("junit"));
+        childPom = writePom("child", "<parent><groupId>" + GROUP_ID + "</groupId><artifactId>parent</artifactId><version>1.0.0</version></parent>");
+    }
+
+    @Test
+    void persistedModelIsReused() throws IOException {
+        assertThat(getDependencies(newBuilder().getModel(childPom)), contains("junit"));
+        String key = getSingleKey();
+        PersistentModelCache persistentModelCache = new PersistentModelCache(cacheDirectory.toFile(), EXPIRY);
+        Model persistedModel = persistentModelCache.get(key)
+            .get();
+        persistedModel.addDependency(newDependency("persisted"));
+        persistentModelCache.put(key, persistedModel);
+
+        assertThat(getDependencies(newBuilder().getModel(childPom)), contains("junit", "persisted"));
+    }
+
+    @Test
+    void changedParentIsNotReused() throws IOException {
+        newBuilder().getModel(childPom);
+        String key = getSingleKey();
+        PersistentModelCache persistentModelCache = new PersistentModelCache(cacheDirectory.toFile(), EXPIRY);
+        Model persistedModel = persistentModelCache.get(key)
+            .get();
+        persistedModel.addDependency(newDependency("persisted"));
+        persistentModelCache.put(key, persistedModel);
+        writePom("parent", "<packaging>pom</packaging>" + dependency("hamcrest"));
+
+        assertThat(getDependencies(newBuilder().getModel(childPom)), contains("hamcrest"));
+    }
+
+    @Test
+    void corruptModelIsRebuilt() throws IOException {
+        newBuilder().getModel(childPom);
+        String key = getSingleKey();
+        Files.write(getEntries().get(0), "corrupt".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(getDependencies(newBuilder().getModel(childPom)), contains("junit"));
+        Optional<Model> persistedModel = new PersistentModelCache(cacheDirectory.toFile(), EXPIRY).get(key);
+        assertThat(persistedModel.isPresent(), equalTo(true));
+    }
+
+    @Test
+    void modelImportingBomIsNotPersisted() throws IOException {
+        writePom("bom", "<packaging>pom</packaging><dependencyManagement>" + dependency("junit") + "</dependencyManagement>");
+        File importingPom = writePom("importing", "<dependencyManagement><dependencies><dependency><groupId>" + GROUP_ID
+            + "</groupId><artifactId>bom</artifactId><version>1.0.0</version><type>pom</type><scope>import</scope></dependency>"
+            + "</dependencies></dependencyManagement>");
+
+        assertThat(newBuilder().getModel(importingPom)
+            .getDependencyManagement(), notNullValue());
+        assertThat(getEntries(), empty());
+    }
+
+    @Test
+    void modelWithActivatedProfileIsNotPersisted() throws IOException {
+        File profilePom = writePom("profile", "<profiles><profile><id>jdk</id><activation><jdk>[1.0,)</jdk></activation>" + dependency("junit")
+            + "</profile></profiles>");
+
+        assertThat(getDependencies(newBuilder().getModel(profilePom)), contains("junit"));
+        assertThat(getEntries(), empty());
+    }
+
+    @Test
+    void deletedParentIsResolvedAgain() throws IOException {
+        deletedModels.add("parent");
+
+        assertThat(getDependencies(newBuilder(null).getModel(childPom)), contains("junit"));
+        assertThat(resolutions.get("parent"), equalTo(2));
+    }
+
+    @Test
+    void deleteResolvedModels() throws IOException {
+        EffectiveModelBuilder effectiveModelBuilder = newBuilder(null);
+        effectiveModelBuilder.getModel(childPom);
+
+        effectiveModelBuilder.deleteResolvedModels();
+
+        assertThat(repository.resolve("parent.pom")
+            .toFile()
+            .exists(), equalTo(false));
+        assertThat(childPom.exists(), equalTo(true));
+    }
+
+    private EffectiveModelBuilder newBuilder() {
+        return newBuilder(cacheDirectory.toFile());
+    }
+
+    private EffectiveModelBuilder newBuilder(File persistentModelCacheDirectory) {
+        ArtifactProvider artifactProvider = new ArtifactProvider() {
+            @Override
+            public ArtifactResult getArtifact(Artifact artifact) {
+                String artifactId = artifact.getArtifactId();
+                resolutions.merge(artifactId, 1, Integer::sum);
+                // simulates a POM deleted by the scanner after it has been resolved
+                File file = repository.resolve(deletedModels.remove(artifactId) ? "deleted/" + artifactId + ".pom" : artifactId + ".pom")
+                    .toFile();
+                return new ArtifactResult(new ArtifactRequest(artifact, null, null)).setArtifact(artifact.setFile(file));
+            }
+
+            @Override
+            public File getRepositoryRoot() {
+                return repository.toFile();
+            }
+        };
+        return new EffectiveModelBuilder(artifactProvider, 16, persistentModelCacheDirectory, EXPIRY);
+    }
+
+    private String getSingleKey() throws IOException {
+        List<Path> entries = getEntries();
+        assertThat(entries, hasSize(1));
+        String fileName = entries.get(0)
+            .getFileName()
+            .toString();
+        return fileName.substring(0, fileName.indexOf('.'));
+    }
+
+    private List<Path> getEntries() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            return files.filter(file -> file.toString()
+                    .endsWith(".xml.gz"))
+                .collect(toList());
+        }
+    }
+
+    private File writePom(String artifactId, String content) throws IOException {
+        Path pom = repository.resolve(artifactId + ".pom");
+        Files.write(pom, ("<project><modelVersion>4.0.0</modelVersion><groupId>" + GROUP_ID + "</groupId><artifactId>" + artifactId
+            + "</artifactId><version>1.0.0</version>" + content + "</project>").getBytes(StandardCharsets.UTF_8));
+        return pom.toFile();
+    }
+
+    private static String dependency(String artifactId) {
+        return "<dependencies><dependency><groupId>" + GROUP_ID + "</groupId><artifactId>" + artifactId
+            + "</artifactId><version>1.0.0</version><scope>test</scope></dependency></dependencies>";
+    }
+
+    private static Dependency newDependency(String artifactId) {
+        Dependency dependency = new Dependency();
+        dependency.setGroupId(GROUP_ID);
+        dependency.setArtifactId(artifactId);
+        dependency.setVersion("1.0.0");
+        return dependency;
+    }
+
+    private static List<String> getDependencies(Model model) {
+        return model.getDependencies()
+            .stream()
+            .map(Dependency::getArtifactId)
+            .collect(toList());
+    }
+}
@@ -0,0 +1,41 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class JsonFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void quote() {
+        assertThat(JsonFile.quote(null), equalTo("null"));
+        assertThat(JsonFile.quote("org.jqassistant:artifact:jar:1.0.0"), equalTo("\"org.jqassistant:artifact:jar:1.0.0\""));
+        assertThat(JsonFile.quote("C:\\repository \"local\""), equalTo("\"C:\\\\repository \\\"local\\\"\""));
+        assertThat(JsonFile.quote("line\nfeed\r\ttab\u0000\u001f"), equalTo("\"line\\nfeed\\r\\ttab\\u0000\\u001f\""));
+    }
+
+    @Test
+    void write() throws IOException {
+        File file = directory.resolve("status")
+            .resolve("status.json")
+            .toFile();
+
+        JsonFile.write(file, "{ \"state\": \"running\" }");
+        JsonFile.write(file, "{ \"state\": \"completed\" }");
+
+        assertThat(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8), equalTo("{ \"state\": \"completed\" }"));
+        assertThat(file.getParentFile()
+            .list(), arrayContaining("status.json"));
+    }
+}
@@ -0,0 +1,42 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertThat(histogram.getCount(), equalTo(0L));
+        assertThat(histogram.getValueAtPercentile(50), equalTo(0L));
+        assertThat(histogram.getMax(), equalTo(0L));
+    }
+
+    @Test
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        assertThat(histogram.getCount(), equalTo(1000L));
+        assertThat(histogram.getMax(), equalTo(1000000L));
+        assertThat((double) histogram.getValueAtPercentile(50), closeTo(500000, 500000 * 0.07));
+        assertThat((double) histogram.getValueAtPercentile(90), closeTo(900000, 900000 * 0.07));
+        assertThat((double) histogram.getValueAtPercentile(99), closeTo(990000, 990000 * 0.07));
+        assertThat(histogram.getValueAtPercentile(100), equalTo(1000000L));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(7));
+        assertThat(histogram.getValueAtPercentile(50), equalTo(3L));
+        assertThat(histogram.getValueAtPercentile(100), equalTo(7L));
+    }
+}
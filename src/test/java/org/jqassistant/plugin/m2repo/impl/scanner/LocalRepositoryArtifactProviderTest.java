@@ -0,0 +1,151 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.apache.maven.index.context.IndexingContext;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LocalRepositoryArtifactProviderTest {
+
+    @TempDir
+    Path directory;
+
+    private Path repositoryDirectory;
+
+    private File workDirectory;
+
+    @BeforeEach
+    void createDirectories() throws IOException {
+        repositoryDirectory = Files.createDirectories(directory.resolve("repository"));
+        workDirectory = directory.resolve("work")
+            .toFile();
+    }
+
+    @Test
+    void isLocal() throws IOException {
+        assertThat(LocalRepositoryArtifactProvider.isLocal(repositoryDirectory.toUri()
+            .toURL()), equalTo(true));
+        assertThat(LocalRepositoryArtifactProvider.isLocal(new URL("http://localhost:9095")), equalTo(false));
+    }
+
+    @Test
+    void missingRepositoryDirectory() {
+        assertThrows(IOException.class, () -> new LocalRepositoryArtifactProvider(directory.resolve("missing")
+            .toUri()
+            .toURL(), workDirectory));
+    }
+
+    @Test
+    void getArtifact() throws IOException, ArtifactResolutionException {
+        Path jar = write("org/test/artifact/1.0/artifact-1.0.jar");
+        Path sources = write("org/test/artifact/1.0/artifact-1.0-sources.jar");
+        Path pom = write("org/test/artifact/1.0/artifact-1.0.pom");
+        Path snapshot = write("org/test/artifact/2.0-SNAPSHOT/artifact-2.0-20200101.120000-1.jar");
+        LocalRepositoryArtifactProvider artifactProvider = newArtifactProvider();
+
+        assertResolved(artifactProvider.getArtifact(new DefaultArtifact("org.test:artifact:jar:1.0")), jar);
+        assertResolved(artifactProvider.getArtifact(new DefaultArtifact("org.test:artifact:jar:sources:1.0")), sources);
+        assertResolved(artifactProvider.getArtifact(new DefaultArtifact("org.test:artifact:pom:1.0")), pom);
+        // timestamped snapshots are located in the directory of their base version
+        assertResolved(artifactProvider.getArtifact(new DefaultArtifact("org.test:artifact:jar:2.0-20200101.120000-1")), snapshot);
+        assertThat(artifactProvider.getRepositoryRoot(), equalTo(repositoryDirectory.toFile()
+            .getAbsoluteFile()));
+    }
+
+    @Test
+    void missingArtifact() throws IOException {
+        LocalRepositoryArtifactProvider artifactProvider = newArtifactProvider();
+
+        ArtifactResolutionException exception = assertThrows(ArtifactResolutionException.class,
+            () -> artifactProvider.getArtifact(new DefaultArtifact("org.test:missing:jar:1.0")));
+
+        List<ArtifactResult> artifactResults = exception.getResults();
+        assertThat(artifactResults, hasSize(1));
+        assertThat(artifactResults.get(0)
+            .isResolved(), equalTo(false));
+        assertThat(artifactResults.get(0)
+            .getExceptions(), contains(instanceOf(ArtifactNotFoundException.class)));
+    }
+
+    @Test
+    void workDirectory() throws IOException {
+        write("org/test/artifact/1.0/artifact-1.0.jar");
+        LocalRepositoryArtifactProvider artifactProvider = newArtifactProvider();
+
+        File providerWorkDirectory = artifactProvider.getWorkDirectory();
+
+        assertThat(providerWorkDirectory.isDirectory(), equalTo(true));
+        assertThat(providerWorkDirectory.toPath()
+            .startsWith(workDirectory.getAbsoluteFile()
+                .toPath()), equalTo(true));
+        // the repository is only read
+        try (Stream<Path> files = Files.walk(repositoryDirectory)) {
+            assertThat(files.filter(Files::isRegularFile)
+                .count(), equalTo(1L));
+        }
+    }
+
+    @Test
+    void hasMavenIndex() throws IOException {
+        LocalRepositoryArtifactProvider artifactProvider = newArtifactProvider();
+        assertThat(artifactProvider.hasMavenIndex(), equalTo(false));
+
+        write(".index/" + IndexingContext.INDEX_FILE_PREFIX + ".properties");
+
+        assertThat(artifactProvider.hasMavenIndex(), equalTo(true));
+    }
+
+    @Test
+    void getArtifactsSince() throws IOException {
+        write("org/test/artifact/1.0/artifact-1.0.jar");
+        LocalRepositoryArtifactProvider artifactProvider = newArtifactProvider();
+
+        List<String> versions = new ArrayList<>();
+        try (ArtifactSearchResult searchResult = artifactProvider.getArtifactsSince(new Date(0), 1, 16)) {
+            for (ArtifactInfo artifactInfo : searchResult) {
+                versions.add(artifactInfo.getGroupId() + ":" + artifactInfo.getArtifactId() + ":" + artifactInfo.getVersion());
+            }
+        }
+
+        assertThat(versions, contains("org.test:artifact:1.0"));
+    }
+
+    private LocalRepositoryArtifactProvider newArtifactProvider() throws IOException {
+        return new LocalRepositoryArtifactProvider(repositoryDirectory.toUri()
+            .toURL(), workDirectory);
+    }
+
+    private static void assertResolved(ArtifactResult artifactResult, Path file) {
+        assertThat(artifactResult.isResolved(), equalTo(true));
+        assertThat(artifactResult.getArtifact()
+            .getFile(), equalTo(file.toFile()
+            .getAbsoluteFile()));
+    }
+
+    private Path write(String path) throws IOException {
+        Path file = repositoryDirectory.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, path.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
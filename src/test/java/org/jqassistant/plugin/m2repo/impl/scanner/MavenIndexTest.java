@@ -0,0 +1,134 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.jqassistant.plugin.m2repo.test.scanner.SyntheticRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Verifies reading the artifacts of an update from the received incremental index chunks and the fallbacks to searching the index.
+ * <p>
+ * The tests distinguish both ways by the last modified timestamps of the artifacts: the chunks provide only the added artifacts regardless
+ * of their timestamps, the search provides all artifacts modified after the start date.
+ */
+class MavenIndexTest {
+
+    private static final int GROUPS = 2;
+
+    private static final int ARTIFACTS_PER_GROUP = 3;
+
+    private static final int VERSIONS_PER_ARTIFACT = 2;
+
+    private static final String ADDED_VERSION = "1." + VERSIONS_PER_ARTIFACT + ".0";
+
+    @TempDir
+    Path directory;
+
+    private File repositoryDirectory;
+
+    private File workDirectory;
+
+    private final SyntheticRepository syntheticRepository = new SyntheticRepository().groups(GROUPS)
+        .artifactsPerGroup(ARTIFACTS_PER_GROUP)
+        .versionsPerArtifact(VERSIONS_PER_ARTIFACT)
+        .classifiers()
+        .parentDepth(1)
+        .dependencyFanOut(0);
+
+    @BeforeEach
+    void createDirectories() {
+        repositoryDirectory = directory.resolve("repository")
+            .toFile();
+        workDirectory = directory.resolve("work")
+            .toFile();
+    }
+
+    @Test
+    void incrementalChunks() throws IOException {
+        syntheticRepository.generate(repositoryDirectory);
+        update();
+        Date lastScan = new Date();
+        syntheticRepository.addVersions(repositoryDirectory, 1);
+
+        List<ArtifactInfo> artifactInfos = updateAndGetUpdatedArtifacts(lastScan);
+
+        // the search would not find any artifact as all have been modified before the last scan
+        assertThat(artifactInfos, hasSize(GROUPS * ARTIFACTS_PER_GROUP));
+        assertThat(artifactInfos, everyItem(hasProperty("version", equalTo(ADDED_VERSION))));
+    }
+
+    @Test
+    void fullUpdate() throws IOException {
+        syntheticRepository.generate(repositoryDirectory);
+        update();
+        Date lastScan = new Date();
+        // a republished index is received as full update
+        syntheticRepository.lastModified(lastScan.getTime() + 1)
+            .generate(repositoryDirectory);
+
+        List<ArtifactInfo> artifactInfos = updateAndGetUpdatedArtifacts(lastScan);
+
+        assertThat(artifactInfos, hasSize(syntheticRepository.getIndexEntries()));
+    }
+
+    @Test
+    void withoutPreviousTimestamp() throws IOException {
+        Date lastScan = new Date();
+        syntheticRepository.lastModified(lastScan.getTime() + 1)
+            .generate(repositoryDirectory);
+
+        List<ArtifactInfo> artifactInfos = updateAndGetUpdatedArtifacts(lastScan);
+
+        assertThat(artifactInfos, hasSize(syntheticRepository.getIndexEntries()));
+    }
+
+    @Test
+    void previousTimestampAfterStartDate() throws IOException {
+        Date startDate = new Date();
+        syntheticRepository.lastModified(startDate.getTime() + 1)
+            .generate(repositoryDirectory);
+        update();
+        syntheticRepository.addVersions(repositoryDirectory, 1);
+
+        List<ArtifactInfo> artifactInfos = updateAndGetUpdatedArtifacts(startDate);
+
+        // the chunks would only provide the added versions
+        assertThat(artifactInfos, hasSize(syntheticRepository.getIndexEntries()));
+        assertThat(artifactInfos, hasItem(hasProperty("version", not(equalTo(ADDED_VERSION)))));
+    }
+
+    private void update() throws IOException {
+        try (MavenIndex mavenIndex = newMavenIndex()) {
+            mavenIndex.updateIndex();
+        }
+    }
+
+    private List<ArtifactInfo> updateAndGetUpdatedArtifacts(Date startDate) throws IOException {
+        try (MavenIndex mavenIndex = newMavenIndex()) {
+            mavenIndex.updateIndex();
+            List<ArtifactInfo> artifactInfos = new ArrayList<>();
+            try (ArtifactSearchResult searchResult = mavenIndex.getUpdatedArtifacts(startDate)) {
+                for (ArtifactInfo artifactInfo : searchResult) {
+                    artifactInfos.add(artifactInfo);
+                }
+            }
+            return artifactInfos;
+        }
+    }
+
+    private MavenIndex newMavenIndex() throws IOException {
+        return new MavenIndex(repositoryDirectory.toURI()
+            .toURL(), workDirectory, null, null);
+    }
+}
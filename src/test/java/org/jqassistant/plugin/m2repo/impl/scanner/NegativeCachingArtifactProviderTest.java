@@ -0,0 +1,121 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.repository.RemoteRepository;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.eclipse.aether.transfer.ArtifactNotFoundException;
+import org.eclipse.aether.transfer.ArtifactTransferException;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NegativeCachingArtifactProviderTest {
+
+    private static final Artifact RESOLVABLE = new DefaultArtifact("org.jqassistant:resolvable:1.0.0");
+
+    private static final Artifact MISSING = new DefaultArtifact("org.jqassistant:missing:1.0.0");
+
+    private static final Artifact TIMEOUT = new DefaultArtifact("org.jqassistant:timeout:1.0.0");
+
+    private static final RemoteRepository REPOSITORY = new RemoteRepository.Builder("test", "default", "http://localhost").build();
+
+    private final Map<String, Integer> requests = new ConcurrentHashMap<>();
+
+    /**
+     * The delegate counting the requests per artifact, the methods for asynchronous and batch resolution are the default methods based on
+     * {@link ArtifactProvider#getArtifact(Artifact)}.
+     */
+    private final ArtifactProvider delegate = new ArtifactProvider() {
+
+        @Override
+        public ArtifactResult getArtifact(Artifact artifact) throws ArtifactResolutionException {
+            requests.merge(artifact.getArtifactId(), 1, Integer::sum);
+            ArtifactResult artifactResult = new ArtifactResult(new ArtifactRequest(artifact, null, null));
+            if (artifact.equals(MISSING)) {
+                throw new ArtifactResolutionException(
+                    singletonList(artifactResult.addException(new ArtifactNotFoundException(artifact, REPOSITORY))));
+            } else if (artifact.equals(TIMEOUT)) {
+                throw new ArtifactResolutionException(
+                    singletonList(artifactResult.addException(new ArtifactTransferException(artifact, REPOSITORY, "Read timed out"))));
+            }
+            return artifactResult.setArtifact(artifact.setFile(new File(artifact.getArtifactId() + ".jar")));
+        }
+
+        @Override
+        public File getRepositoryRoot() {
+            return new File(".");
+        }
+    };
+
+    private final NegativeCachingArtifactProvider artifactProvider = new NegativeCachingArtifactProvider(delegate, Duration.ofHours(1));
+
+    @Test
+    void getArtifact() throws ArtifactResolutionException {
+        for (int i = 0; i < 2; i++) {
+            assertThat(artifactProvider.getArtifact(RESOLVABLE)
+                .isResolved(), equalTo(true));
+            assertThrows(ArtifactResolutionException.class, () -> artifactProvider.getArtifact(MISSING));
+            assertThrows(ArtifactResolutionException.class, () -> artifactProvider.getArtifact(TIMEOUT));
+        }
+
+        assertRequests();
+    }
+
+    @Test
+    void getArtifactAsync() throws InterruptedException, ExecutionException {
+        for (int i = 0; i < 2; i++) {
+            assertThat(artifactProvider.getArtifactAsync(RESOLVABLE)
+                .get()
+                .isResolved(), equalTo(true));
+            for (Artifact unresolvable : Arrays.asList(MISSING, TIMEOUT)) {
+                ExecutionException executionException = assertThrows(ExecutionException.class, () -> artifactProvider.getArtifactAsync(unresolvable)
+                    .get());
+                assertThat(executionException.getCause(), instanceOf(ArtifactResolutionException.class));
+            }
+        }
+
+        assertRequests();
+    }
+
+    @Test
+    void getArtifacts() {
+        for (int i = 0; i < 2; i++) {
+            List<ArtifactResult> artifactResults = artifactProvider.getArtifacts(Arrays.asList(RESOLVABLE, MISSING, TIMEOUT));
+            assertThat(artifactResults, hasSize(3));
+            assertThat(artifactResults.get(0)
+                .isResolved(), equalTo(true));
+            assertThat(artifactResults.get(1)
+                .isResolved(), equalTo(false));
+            assertThat(artifactResults.get(1)
+                .getExceptions(), not(empty()));
+            assertThat(artifactResults.get(2)
+                .isResolved(), equalTo(false));
+        }
+
+        assertRequests();
+    }
+
+    /**
+     * Verifies that only the missing artifact has been remembered, i.e. requested once.
+     */
+    private void assertRequests() {
+        assertThat(requests.get(RESOLVABLE.getArtifactId()), equalTo(2));
+        assertThat(requests.get(MISSING.getArtifactId()), equalTo(1));
+        assertThat(requests.get(TIMEOUT.getArtifactId()), equalTo(2));
+    }
+}
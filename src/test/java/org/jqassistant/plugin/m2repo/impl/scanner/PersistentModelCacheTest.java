@@ -0,0 +1,97 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class PersistentModelCacheTest {
+
+    private static final Duration EXPIRY = Duration.ofDays(30);
+
+    private static final String KEY = "0123456789abcdef0123456789abcdef01234567";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void miss() {
+        PersistentModelCache cache = new PersistentModelCache(directory.toFile(), EXPIRY);
+
+        assertThat(cache.get(KEY), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void hit() {
+        PersistentModelCache cache = new PersistentModelCache(directory.toFile(), EXPIRY);
+        cache.put(KEY, model("artifact"));
+
+        Optional<Model> model = new PersistentModelCache(directory.toFile(), EXPIRY).get(KEY);
+
+        assertThat(model.isPresent(), equalTo(true));
+        assertThat(model.get()
+            .getArtifactId(), equalTo("artifact"));
+    }
+
+    @Test
+    void corruptEntry() throws IOException {
+        PersistentModelCache cache = new PersistentModelCache(directory.toFile(), EXPIRY);
+        cache.put(KEY, model("artifact"));
+        File file = getFile(KEY);
+        Files.write(file.toPath(), "corrupt".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(cache.get(KEY), equalTo(Optional.empty()));
+        assertThat(file.exists(), equalTo(false));
+
+        cache.put(KEY, model("rebuilt"));
+        assertThat(cache.get(KEY)
+            .map(Model::getArtifactId), equalTo(Optional.of("rebuilt")));
+    }
+
+    @Test
+    void expiredEntries() {
+        String expiredKey = "fedcba9876543210fedcba9876543210fedcba98";
+        PersistentModelCache cache = new PersistentModelCache(directory.toFile(), EXPIRY);
+        cache.put(KEY, model("used"));
+        cache.put(expiredKey, model("expired"));
+        long expired = System.currentTimeMillis() - EXPIRY.plusDays(1)
+            .toMillis();
+        assertThat(getFile(KEY).setLastModified(expired), equalTo(true));
+        assertThat(getFile(expiredKey).setLastModified(expired), equalTo(true));
+        // reading renews the entry
+        assertThat(cache.get(KEY)
+            .isPresent(), equalTo(true));
+
+        PersistentModelCache reopenedCache = new PersistentModelCache(directory.toFile(), EXPIRY);
+
+        assertThat(getFile(expiredKey).exists(), equalTo(false));
+        assertThat(reopenedCache.get(expiredKey), equalTo(Optional.empty()));
+        assertThat(reopenedCache.get(KEY)
+            .isPresent(), equalTo(true));
+    }
+
+    private File getFile(String key) {
+        return directory.resolve(key.substring(0, 2))
+            .resolve(key + ".xml.gz")
+            .toFile();
+    }
+
+    private static Model model(String artifactId) {
+        Model model = new Model();
+        model.setModelVersion("4.0.0");
+        model.setGroupId("org.jqassistant.test");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0.0");
+        return model;
+    }
+}
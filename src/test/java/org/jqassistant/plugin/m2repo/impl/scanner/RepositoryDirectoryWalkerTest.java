@@ -0,0 +1,175 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RepositoryDirectoryWalkerTest {
+
+    private static final String SHA1 = "0123456789abcdef0123456789abcdef01234567";
+
+    private static final long MODIFIED = 1_600_000_000_000L;
+
+    @TempDir
+    Path root;
+
+    @Test
+    void packagingFromPom() throws IOException {
+        writePom("org/test/bundle/1.0/bundle-1.0.pom", "<packaging>bundle</packaging>");
+        write("org/test/bundle/1.0/bundle-1.0.jar");
+        write("org/test/bundle/1.0/bundle-1.0-sources.jar");
+        writePom("org/test/plugin/1.0/plugin-1.0.pom", "<build><packaging>ignored</packaging></build><packaging> maven-plugin </packaging>");
+        write("org/test/plugin/1.0/plugin-1.0.jar");
+        writePom("org/test/default/1.0/default-1.0.pom", "");
+        write("org/test/default/1.0/default-1.0.jar");
+        write("org/test/without-pom/1.0/without-pom-1.0.jar");
+        writePom("org/test/parent/1.0/parent-1.0.pom", "<packaging>pom</packaging>");
+        write("org/test/parent/1.0/parent-1.0-tests.jar");
+
+        Map<String, ArtifactInfo> artifactInfos = walk(0);
+
+        assertThat(artifactInfos.keySet(),
+            containsInAnyOrder("org.test:bundle:1.0::jar", "org.test:bundle:1.0:sources:jar", "org.test:plugin:1.0::jar",
+                "org.test:default:1.0::jar", "org.test:without-pom:1.0::jar", "org.test:parent:1.0::pom", "org.test:parent:1.0:tests:jar"));
+        assertThat(artifactInfos.get("org.test:bundle:1.0::jar")
+            .getPackaging(), equalTo("bundle"));
+        assertThat(artifactInfos.get("org.test:bundle:1.0:sources:jar")
+            .getPackaging(), equalTo("jar"));
+        assertThat(artifactInfos.get("org.test:plugin:1.0::jar")
+            .getPackaging(), equalTo("maven-plugin"));
+        assertThat(artifactInfos.get("org.test:default:1.0::jar")
+            .getPackaging(), equalTo("jar"));
+        assertThat(artifactInfos.get("org.test:without-pom:1.0::jar")
+            .getPackaging(), equalTo("jar"));
+        assertThat(artifactInfos.get("org.test:parent:1.0::pom")
+            .getPackaging(), equalTo("pom"));
+        assertThat(artifactInfos.get("org.test:parent:1.0:tests:jar")
+            .getPackaging(), equalTo("jar"));
+    }
+
+    @Test
+    void snapshots() throws IOException {
+        writePom("org/test/snapshot/1.0-SNAPSHOT/snapshot-1.0-20200101.120000-1.pom", "<packaging>bundle</packaging>");
+        write("org/test/snapshot/1.0-SNAPSHOT/snapshot-1.0-20200101.120000-1.jar");
+        writePom("org/test/snapshot/1.0-SNAPSHOT/snapshot-1.0-20200102.120000-2.pom", "<packaging>maven-plugin</packaging>");
+        write("org/test/snapshot/1.0-SNAPSHOT/snapshot-1.0-20200102.120000-2.jar");
+        write("org/test/snapshot/1.0-SNAPSHOT/snapshot-1.0-SNAPSHOT.jar");
+
+        Map<String, ArtifactInfo> artifactInfos = walk(0);
+
+        assertThat(artifactInfos.keySet(), containsInAnyOrder("org.test:snapshot:1.0-20200101.120000-1::jar",
+            "org.test:snapshot:1.0-20200102.120000-2::jar", "org.test:snapshot:1.0-SNAPSHOT::jar"));
+        assertThat(artifactInfos.get("org.test:snapshot:1.0-20200101.120000-1::jar")
+            .getPackaging(), equalTo("bundle"));
+        assertThat(artifactInfos.get("org.test:snapshot:1.0-20200102.120000-2::jar")
+            .getPackaging(), equalTo("maven-plugin"));
+        assertThat(artifactInfos.get("org.test:snapshot:1.0-SNAPSHOT::jar")
+            .getPackaging(), equalTo("jar"));
+    }
+
+    @Test
+    void fileAttributes() throws IOException {
+        Path jar = write("org/test/artifact/1.0/artifact-1.0.jar");
+        Files.write(jar.resolveSibling("artifact-1.0.jar.sha1"), (SHA1 + "  artifact-1.0.jar\n").getBytes(StandardCharsets.US_ASCII));
+
+        ArtifactInfo artifactInfo = walk(0).get("org.test:artifact:1.0::jar");
+
+        assertThat(artifactInfo, notNullValue());
+        assertThat(artifactInfo.getSha1(), equalTo(SHA1));
+        assertThat(artifactInfo.getSize(), equalTo(Files.size(jar)));
+        assertThat(artifactInfo.getLastModified(), equalTo(MODIFIED));
+    }
+
+    @Test
+    void ignoredFiles() throws IOException {
+        write("org/test/artifact/1.0/artifact-1.0.jar");
+        write("org/test/artifact/1.0/artifact-1.0.jar.md5");
+        write("org/test/artifact/1.0/artifact-1.0.jar.asc");
+        write("org/test/artifact/1.0/artifact-1.0.jar.lastUpdated");
+        write("org/test/artifact/1.0/_remote.repositories");
+        write("org/test/artifact/1.0/other-1.0.jar");
+        write("org/test/artifact/maven-metadata.xml");
+        write(".index/nexus-maven-repository-index.gz");
+        write("root-1.0.jar");
+
+        assertThat(walk(0).keySet(), contains("org.test:artifact:1.0::jar"));
+    }
+
+    @Test
+    void startDate() throws IOException {
+        write("org/test/old/1.0/old-1.0.jar");
+        Path jar = write("org/test/new/1.0/new-1.0.jar");
+        Files.setLastModifiedTime(jar, FileTime.fromMillis(MODIFIED + 1000));
+
+        assertThat(walk(MODIFIED).keySet(), contains("org.test:new:1.0::jar"));
+    }
+
+    @Test
+    void closeStopsWalk() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            write("org/test/artifact" + i + "/1.0/artifact" + i + "-1.0.jar");
+        }
+
+        try (ArtifactSearchResult searchResult = RepositoryDirectoryWalker.walk(root, 0, 2, 1)) {
+            Iterator<ArtifactInfo> iterator = searchResult.iterator();
+            assertThat(iterator.hasNext(), equalTo(true));
+            assertThat(iterator.next()
+                .getArtifactId(), startsWith("artifact"));
+            // the walk is blocked by the full queue and stopped by closing the result
+        }
+    }
+
+    @Test
+    void missingRoot() throws IOException {
+        try (ArtifactSearchResult searchResult = RepositoryDirectoryWalker.walk(root.resolve("missing"), 0, 2, 1)) {
+            Iterator<ArtifactInfo> iterator = searchResult.iterator();
+            assertThrows(UncheckedIOException.class, iterator::hasNext);
+        }
+    }
+
+    private Map<String, ArtifactInfo> walk(long startDateMillis) throws IOException {
+        Map<String, ArtifactInfo> artifactInfos = new HashMap<>();
+        // a capacity of one directory blocks the walk until the directory has been consumed
+        try (ArtifactSearchResult searchResult = RepositoryDirectoryWalker.walk(root, startDateMillis, 2, 1)) {
+            for (ArtifactInfo artifactInfo : searchResult) {
+                String classifier = artifactInfo.getClassifier() != null ? artifactInfo.getClassifier() : "";
+                artifactInfos.put(artifactInfo.getGroupId() + ":" + artifactInfo.getArtifactId() + ":" + artifactInfo.getVersion() + ":"
+                    + classifier + ":" + artifactInfo.getFileExtension(), artifactInfo);
+            }
+            // the number of artifacts is not known before the walk has completed
+            assertThat(searchResult.getSize(), equalTo(0));
+        }
+        return artifactInfos;
+    }
+
+    private Path writePom(String path, String content) throws IOException {
+        return write(path, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project xmlns=\"http://maven.apache.org/POM/4.0.0\">"
+            + "<modelVersion>4.0.0</modelVersion>" + content + "</project>");
+    }
+
+    private Path write(String path) throws IOException {
+        return write(path, path);
+    }
+
+    private Path write(String path, String content) throws IOException {
+        Path file = root.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(MODIFIED));
+        return file;
+    }
+}
@@ -0,0 +1,144 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.apache.maven.index.ArtifactInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SortedArtifactInfosTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void inMemory() throws IOException {
+        List<ArtifactInfo> artifactInfos = asList(artifactInfo("b", "a", "1.0", null), artifactInfo("a", "a", "1.0", null));
+
+        try (SortedArtifactInfos sortedArtifactInfos = SortedArtifactInfos.sort(artifactInfos, CHUNK_SIZE, getSortDirectory())) {
+            assertThat(getSpillFiles(), empty());
+            assertThat(getCoordinates(sortedArtifactInfos), contains("a:a:1.0:null", "b:a:1.0:null"));
+        }
+    }
+
+    @Test
+    void spillAndMerge() throws IOException {
+        // the chunks overlap, i.e. the merge has to interleave the spilled chunks and the chunk held in memory
+        List<ArtifactInfo> artifactInfos = asList(artifactInfo("c", "a", "1.0", null), artifactInfo("a", "b", "1.0", null),
+            artifactInfo("b", "a", "2.0", null), artifactInfo("a", "a", "1.0", "sources"), artifactInfo("c", "a", "0.9", null),
+            artifactInfo("b", "a", "1.0", null), artifactInfo("a", "a", "1.0", null), artifactInfo("a", "b", "0.1", null));
+
+        try (SortedArtifactInfos sortedArtifactInfos = SortedArtifactInfos.sort(artifactInfos, CHUNK_SIZE, getSortDirectory())) {
+            assertThat(sortedArtifactInfos.getSize(), equalTo(artifactInfos.size()));
+            assertThat(getSpillFiles(), hasSize(artifactInfos.size() / CHUNK_SIZE));
+            // classifiers without value precede classifiers with value
+            assertThat(getCoordinates(sortedArtifactInfos),
+                contains("a:a:1.0:null", "a:a:1.0:sources", "a:b:0.1:null", "a:b:1.0:null", "b:a:1.0:null", "b:a:2.0:null", "c:a:0.9:null",
+                    "c:a:1.0:null"));
+            // the sorted artifacts may be iterated repeatedly
+            assertThat(getCoordinates(sortedArtifactInfos), hasSize(artifactInfos.size()));
+        }
+
+        assertThat(getSpillFiles(), empty());
+    }
+
+    @Test
+    void spilledValues() throws IOException {
+        ArtifactInfo artifactInfo = artifactInfo("a", "a", "1.0", "sources");
+        artifactInfo.setPackaging("bundle");
+        artifactInfo.setSha1("0123456789abcdef0123456789abcdef01234567");
+        artifactInfo.setLastModified(1_700_000_000_000L);
+        artifactInfo.setSize(42);
+        List<ArtifactInfo> artifactInfos = asList(artifactInfo, artifactInfo("b", "b", "1.0", null), artifactInfo("c", "c", "1.0", null));
+
+        try (SortedArtifactInfos sortedArtifactInfos = SortedArtifactInfos.sort(artifactInfos, CHUNK_SIZE, getSortDirectory())) {
+            assertThat(getSpillFiles(), hasSize(1));
+            ArtifactInfo spilledArtifactInfo = sortedArtifactInfos.iterator()
+                .next();
+            assertThat(spilledArtifactInfo.getGroupId(), equalTo("a"));
+            assertThat(spilledArtifactInfo.getClassifier(), equalTo("sources"));
+            assertThat(spilledArtifactInfo.getPackaging(), equalTo("bundle"));
+            assertThat(spilledArtifactInfo.getFileExtension(), equalTo("jar"));
+            assertThat(spilledArtifactInfo.getSha1(), equalTo("0123456789abcdef0123456789abcdef01234567"));
+            assertThat(spilledArtifactInfo.getLastModified(), equalTo(1_700_000_000_000L));
+            assertThat(spilledArtifactInfo.getSize(), equalTo(42L));
+        }
+    }
+
+    @Test
+    void failure() throws IOException {
+        List<ArtifactInfo> artifactInfos = new ArrayList<>();
+        for (int i = 0; i < 3 * CHUNK_SIZE; i++) {
+            artifactInfos.add(artifactInfo("g" + i, "a", "1.0", null));
+        }
+        // fails after two chunks have been spilled
+        Iterable<ArtifactInfo> failingArtifactInfos = () -> new Iterator<ArtifactInfo>() {
+
+            private final Iterator<ArtifactInfo> delegate = artifactInfos.iterator();
+
+            private int read = 0;
+
+            @Override
+            public boolean hasNext() {
+                return delegate.hasNext();
+            }
+
+            @Override
+            public ArtifactInfo next() {
+                if (read++ == 2 * CHUNK_SIZE + 1) {
+                    throw new IllegalStateException("Cannot read index.");
+                }
+                return delegate.next();
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> SortedArtifactInfos.sort(failingArtifactInfos, CHUNK_SIZE, getSortDirectory()));
+
+        assertThat(getSpillFiles(), empty());
+        try (Stream<Path> files = Files.list(directory.resolve("sort"))) {
+            assertThat(files.collect(toList()), empty());
+        }
+    }
+
+    private File getSortDirectory() {
+        return directory.resolve("sort")
+            .toFile();
+    }
+
+    private List<Path> getSpillFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile)
+                .collect(toList());
+        }
+    }
+
+    private static List<String> getCoordinates(Iterable<ArtifactInfo> artifactInfos) {
+        List<String> coordinates = new ArrayList<>();
+        for (ArtifactInfo artifactInfo : artifactInfos) {
+            coordinates.add(artifactInfo.getGroupId() + ":" + artifactInfo.getArtifactId() + ":" + artifactInfo.getVersion() + ":"
+                + artifactInfo.getClassifier());
+        }
+        return coordinates;
+    }
+
+    private static ArtifactInfo artifactInfo(String groupId, String artifactId, String version, String classifier) {
+        ArtifactInfo artifactInfo = new ArtifactInfo("test", groupId, artifactId, version, classifier, "jar");
+        artifactInfo.setPackaging("jar");
+        return artifactInfo;
+    }
+}
@@ -0,0 +1,175 @@
+package org.jqassistant.plugin.m2repo.impl.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.EffectiveModel;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Repository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.util.stream.Collectors.toList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class StreamingPomModelBuilderTest {
+
+    private static final String COORDINATES = "<groupId>org.jqassistant.test</groupId><artifactId>test</artifactId><version>1.0.0</version>";
+
+    private static final String DEPENDENCY = "<dependency><groupId>org.jqassistant.test</groupId><artifactId>dependency</artifactId>"
+        + "<version>1.0.0</version></dependency>";
+
+    @TempDir
+    Path directory;
+
+    private final Model delegateModel = new Model();
+
+    private final List<File> delegatedPoms = new ArrayList<>();
+
+    private final StreamingPomModelBuilder modelBuilder = new StreamingPomModelBuilder(pomFile -> {
+        delegatedPoms.add(pomFile);
+        return delegateModel;
+    });
+
+    @Test
+    void streamedModel() throws IOException {
+        File pom = writePom("<project xmlns=\"http://maven.apache.org/POM/4.0.0\"><modelVersion>4.0.0</modelVersion>" + COORDINATES
+            + "<packaging>bundle</packaging><name> Test </name><description>A test.</description><url>https://jqassistant.org</url>"
+            + "<scm><url>https://github.com/jqassistant</url></scm>" //
+            + "<dependencies>" //
+            + DEPENDENCY //
+            + "<dependency><groupId>org.jqassistant.test</groupId><artifactId>optional</artifactId><version>2.0.0</version>"
+            + "<type>test-jar</type><classifier>tests</classifier><scope>test</scope><optional>true</optional>"
+            + "<exclusions><exclusion><groupId>org.excluded</groupId><artifactId>excluded</artifactId></exclusion></exclusions>"
+            + "</dependency></dependencies></project>");
+
+        Model model = modelBuilder.getModel(pom);
+
+        assertThat(model, instanceOf(EffectiveModel.class));
+        assertThat(StreamingPomModelBuilder.isStreamed(model), equalTo(true));
+        assertThat(model.getModelVersion(), equalTo("4.0.0"));
+        assertThat(model.getGroupId(), equalTo("org.jqassistant.test"));
+        assertThat(model.getArtifactId(), equalTo("test"));
+        assertThat(model.getVersion(), equalTo("1.0.0"));
+        assertThat(model.getPackaging(), equalTo("bundle"));
+        assertThat(model.getName(), equalTo("Test"));
+        assertThat(model.getDescription(), equalTo("A test."));
+        assertThat(model.getUrl(), equalTo("https://jqassistant.org"));
+        List<Dependency> dependencies = model.getDependencies();
+        assertThat(dependencies, hasSize(2));
+        Dependency dependency = dependencies.get(0);
+        assertThat(dependency.getArtifactId(), equalTo("dependency"));
+        assertThat(dependency.getScope(), equalTo("compile"));
+        assertThat(dependency.isOptional(), equalTo(false));
+        Dependency optionalDependency = dependencies.get(1);
+        assertThat(optionalDependency.getArtifactId(), equalTo("optional"));
+        assertThat(optionalDependency.getVersion(), equalTo("2.0.0"));
+        assertThat(optionalDependency.getType(), equalTo("test-jar"));
+        assertThat(optionalDependency.getClassifier(), equalTo("tests"));
+        assertThat(optionalDependency.getScope(), equalTo("test"));
+        assertThat(optionalDependency.isOptional(), equalTo(true));
+        assertThat(optionalDependency.getExclusions(), hasSize(1));
+        assertThat(optionalDependency.getExclusions()
+            .get(0)
+            .getGroupId(), equalTo("org.excluded"));
+        assertThat(optionalDependency.getExclusions()
+            .get(0)
+            .getArtifactId(), equalTo("excluded"));
+        // contributed by the super POM
+        assertThat(model.getRepositories()
+            .stream()
+            .map(Repository::getId)
+            .collect(toList()), contains("central"));
+        assertThat(model.getPluginRepositories()
+            .stream()
+            .map(Repository::getId)
+            .collect(toList()), contains("central"));
+        assertThat(model.getScm(), nullValue());
+        assertThat(delegatedPoms, empty());
+        assertThat(modelBuilder.getStreamedModels(), equalTo(1L));
+        assertThat(modelBuilder.getDelegatedModels(), equalTo(0L));
+    }
+
+    @Test
+    void parent() throws IOException {
+        assertDelegated("<project><parent><groupId>org.jqassistant.test</groupId><artifactId>parent</artifactId><version>1.0.0</version></parent>"
+            + COORDINATES + "</project>");
+    }
+
+    @Test
+    void dependencyManagement() throws IOException {
+        assertDelegated("<project>" + COORDINATES + "<dependencyManagement><dependencies>" + DEPENDENCY
+            + "</dependencies></dependencyManagement></project>");
+    }
+
+    @Test
+    void profiles() throws IOException {
+        assertDelegated("<project>" + COORDINATES + "<profiles><profile><id>test</id></profile></profiles></project>");
+    }
+
+    @Test
+    void scannedSections() throws IOException {
+        assertDelegated("<project>" + COORDINATES + "<licenses><license><name>Apache</name></license></licenses></project>");
+        assertDelegated("<project>" + COORDINATES + "<developers><developer><id>dev</id></developer></developers></project>");
+        assertDelegated("<project>" + COORDINATES + "<properties><encoding>UTF-8</encoding></properties></project>");
+        assertDelegated("<project>" + COORDINATES + "<modules><module>module</module></modules></project>");
+        assertDelegated("<project>" + COORDINATES + "<build><plugins><plugin><artifactId>maven-compiler-plugin</artifactId></plugin></plugins>"
+            + "</build></project>");
+    }
+
+    @Test
+    void expression() throws IOException {
+        assertDelegated("<project><groupId>org.jqassistant.test</groupId><artifactId>test</artifactId><version>${revision}</version></project>");
+    }
+
+    @Test
+    void dependencyExpression() throws IOException {
+        assertDelegated("<project>" + COORDINATES + "<dependencies><dependency><groupId>${project.groupId}</groupId>"
+            + "<artifactId>dependency</artifactId><version>1.0.0</version></dependency></dependencies></project>");
+    }
+
+    @Test
+    void incompleteCoordinates() throws IOException {
+        assertDelegated("<project><groupId>org.jqassistant.test</groupId><artifactId>test</artifactId></project>");
+    }
+
+    @Test
+    void incompleteDependencyCoordinates() throws IOException {
+        assertDelegated("<project>" + COORDINATES + "<dependencies><dependency><groupId>org.jqassistant.test</groupId>"
+            + "<artifactId>managed</artifactId></dependency></dependencies></project>");
+    }
+
+    @Test
+    void unexpectedRootElement() throws IOException {
+        assertDelegated("<model>" + COORDINATES + "</model>");
+    }
+
+    @Test
+    void parseError() throws IOException {
+        assertDelegated("<project>" + COORDINATES + "<dependencies></project>");
+    }
+
+    private void assertDelegated(String content) throws IOException {
+        File pom = writePom(content);
+
+        assertThat(modelBuilder.getModel(pom), sameInstance(delegateModel));
+        assertThat(StreamingPomModelBuilder.isStreamed(delegateModel), equalTo(false));
+        assertThat(delegatedPoms, hasItem(pom));
+        assertThat(modelBuilder.getStreamedModels(), equalTo(0L));
+        assertThat(modelBuilder.getDelegatedModels(), equalTo((long) delegatedPoms.size()));
+    }
+
+    private File writePom(String content) throws IOException {
+        Path pom = directory.resolve("test.pom");
+        Files.write(pom, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" + content).getBytes(StandardCharsets.UTF_8));
+        return pom.toFile();
+    }
+}
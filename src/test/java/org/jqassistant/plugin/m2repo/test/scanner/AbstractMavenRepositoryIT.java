@@ -34,7 +34,15 @@ public abstract class AbstractMavenRepositoryIT extends AbstractPluginIT {
      * @throws IOException
      */
     protected void startServer(String baseDirSuffix) throws IOException {
-        File repoDirectory = new File(getClassesDirectory(this.getClass()), REPOSITORY_DIR_PREFIX + baseDirSuffix);
+        startServer(new File(getClassesDirectory(this.getClass()), REPOSITORY_DIR_PREFIX + baseDirSuffix));
+    }
+
+    /**
+     * Starts a HTTP server as maven repo serving the given directory.
+     *
+     * @throws IOException
+     */
+    protected void startServer(File repoDirectory) throws IOException {
         httpServer = new HttpServer(REPO_SERVER_PORT, repoDirectory.getAbsolutePath());
         httpServer.start();
     }
@@ -0,0 +1,71 @@
+package org.jqassistant.plugin.m2repo.test.scanner;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.artifact.DefaultArtifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
+import org.junit.jupiter.api.Test;
+
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArtifactProviderTest {
+
+    private static final Artifact RESOLVABLE = new DefaultArtifact("org.jqassistant:resolvable:1.0.0");
+
+    private static final Artifact UNRESOLVABLE = new DefaultArtifact("org.jqassistant:unresolvable:1.0.0");
+
+    /**
+     * An {@link ArtifactProvider} implementing only the blocking method, i.e. relying on the default methods.
+     */
+    private final ArtifactProvider artifactProvider = new ArtifactProvider() {
+
+        @Override
+        public ArtifactResult getArtifact(Artifact artifact) throws ArtifactResolutionException {
+            ArtifactResult artifactResult = new ArtifactResult(new ArtifactRequest(artifact, null, null));
+            if (artifact.equals(UNRESOLVABLE)) {
+                throw new ArtifactResolutionException(singletonList(artifactResult.addException(new IllegalStateException("missing"))));
+            }
+            return artifactResult.setArtifact(artifact.setFile(new File(artifact.getArtifactId() + ".jar")));
+        }
+
+        @Override
+        public File getRepositoryRoot() {
+            return new File(".");
+        }
+    };
+
+    @Test
+    void getArtifactAsync() throws InterruptedException, ExecutionException {
+        assertThat(artifactProvider.getArtifactAsync(RESOLVABLE)
+            .get()
+            .isResolved(), equalTo(true));
+        CompletableFuture<ArtifactResult> unresolvable = artifactProvider.getArtifactAsync(UNRESOLVABLE);
+        ExecutionException executionException = assertThrows(ExecutionException.class, unresolvable::get);
+        assertThat(executionException.getCause(), instanceOf(ArtifactResolutionException.class));
+    }
+
+    @Test
+    void getArtifacts() {
+        List<ArtifactResult> artifactResults = artifactProvider.getArtifacts(Arrays.asList(RESOLVABLE, UNRESOLVABLE, RESOLVABLE));
+        assertThat(artifactResults, hasSize(3));
+        assertThat(artifactResults.get(0)
+            .isResolved(), equalTo(true));
+        assertThat(artifactResults.get(1)
+            .isResolved(), equalTo(false));
+        assertThat(artifactResults.get(1)
+            .getExceptions(), not(empty()));
+        assertThat(artifactResults.get(2)
+            .isResolved(), equalTo(true));
+    }
+}
@@ -2,30 +2,42 @@ package org.jqassistant.plugin.m2repo.test.scanner;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
 
 import com.buschmais.jqassistant.plugin.maven3.api.artifact.ArtifactFilter;
 import com.buschmais.jqassistant.plugin.maven3.api.model.*;
 
 import org.apache.maven.index.ArtifactInfo;
 import org.apache.maven.index.MAVEN;
+import org.eclipse.aether.artifact.Artifact;
+import org.eclipse.aether.resolution.ArtifactRequest;
+import org.eclipse.aether.resolution.ArtifactResolutionException;
+import org.eclipse.aether.resolution.ArtifactResult;
+import org.jqassistant.plugin.m2repo.api.ArtifactProvider;
 import org.jqassistant.plugin.m2repo.api.model.ArtifactInfoDescriptor;
 import org.jqassistant.plugin.m2repo.api.model.MavenSnapshotDescriptor;
 import org.jqassistant.plugin.m2repo.impl.scanner.AetherArtifactProvider;
 import org.jqassistant.plugin.m2repo.impl.scanner.ArtifactSearchResult;
 import org.jqassistant.plugin.m2repo.impl.scanner.ArtifactSearchResultScanner;
+import org.jqassistant.plugin.m2repo.impl.scanner.LocalRepositoryArtifactProvider;
+import org.jqassistant.plugin.m2repo.impl.scanner.ScanOptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class ArtifactSearchResultScannerIT extends AbstractMavenRepositoryIT {
 
@@ -37,6 +49,19 @@ class ArtifactSearchResultScannerIT extends AbstractMavenRepositoryIT {
     private static final long LAST_MODIFIED = -1;
     private static final String PACKAGING_POM = "pom";
 
+    private static final int SYNTHETIC_GROUPS = 6;
+    private static final int SYNTHETIC_ARTIFACTS_PER_GROUP = 10;
+    private static final int SYNTHETIC_VERSIONS_PER_ARTIFACT = 10;
+    private static final long SYNTHETIC_LAST_MODIFIED = 1_700_000_000_000L;
+    /**
+     * The number of artifacts committed by the first checkpoint of a scan.
+     */
+    private static final int CHECKPOINT = 500;
+    /**
+     * The index of the artifact whose model blocks the interrupted scan, i.e. the scan is killed after the first checkpoint.
+     */
+    private static final int INTERRUPTED_ARTIFACT = 550;
+
     private MavenRepositoryDescriptor repositoryDescriptor;
 
     AetherArtifactProvider artifactProvider;
@@ -63,7 +88,9 @@ class ArtifactSearchResultScannerIT extends AbstractMavenRepositoryIT {
 
     private void verify(boolean scanArtifacts) throws IOException {
         ArtifactSearchResultScanner resultScanner = new ArtifactSearchResultScanner(getScanner(), artifactProvider, new ArtifactFilter(null, null),
-            scanArtifacts, true);
+            ScanOptions.builder()
+                .scanArtifacts(scanArtifacts)
+                .build());
         try {
             startServer("1");
             store.beginTransaction();
@@ -142,4 +169,159 @@ class ArtifactSearchResultScannerIT extends AbstractMavenRepositoryIT {
             stopServer();
         }
     }
+
+    @Test
+    void resumeInterruptedScan(@TempDir File repositoryDirectory) throws IOException, InterruptedException {
+        new SyntheticRepository().groups(SYNTHETIC_GROUPS)
+            .artifactsPerGroup(SYNTHETIC_ARTIFACTS_PER_GROUP)
+            .versionsPerArtifact(SYNTHETIC_VERSIONS_PER_ARTIFACT)
+            .classifiers()
+            .parentDepth(0)
+            .dependencyFanOut(0)
+            .generate(repositoryDirectory);
+        List<ArtifactInfo> artifactInfos = new ArrayList<>();
+        for (int g = 0; g < SYNTHETIC_GROUPS; g++) {
+            for (int a = 0; a < SYNTHETIC_ARTIFACTS_PER_GROUP; a++) {
+                for (int v = 0; v < SYNTHETIC_VERSIONS_PER_ARTIFACT; v++) {
+                    ArtifactInfo artifactInfo = new ArtifactInfo("synthetic", "org.jqassistant.synthetic.group" + g, "artifact" + a, "1." + v + ".0",
+                        null, PACKAGING_JAR);
+                    artifactInfo.setPackaging(PACKAGING_JAR);
+                    artifactInfo.setLastModified(SYNTHETIC_LAST_MODIFIED);
+                    artifactInfos.add(artifactInfo);
+                }
+            }
+        }
+        ArtifactProvider repository = new LocalRepositoryArtifactProvider(repositoryDirectory.toURI()
+            .toURL(), localRepositoryDirectory);
+        ScanOptions options = ScanOptions.builder()
+            .resumable(true)
+            .build();
+        store.beginTransaction();
+        repositoryDescriptor.setLastUpdate(0L);
+        store.commitTransaction();
+
+        // kill the scan after the first checkpoint: wait until the consumer has taken all results fetched before the blocked model
+        BlockingArtifactProvider interruptedProvider = new BlockingArtifactProvider(repository, getGAV(artifactInfos.get(INTERRUPTED_ARTIFACT)));
+        Thread scanThread = Thread.currentThread();
+        Thread killer = new Thread(() -> {
+            try {
+                interruptedProvider.blocked.await();
+                while (!isWaitingForResult(scanThread)) {
+                    Thread.sleep(10);
+                }
+                scanThread.interrupt();
+            } catch (InterruptedException e) {
+                Thread.currentThread()
+                    .interrupt();
+            }
+        });
+        killer.start();
+        store.beginTransaction();
+        try {
+            assertThrows(InterruptedIOException.class,
+                () -> new ArtifactSearchResultScanner(getScanner(), interruptedProvider, new ArtifactFilter(null, null), options).scan(
+                    new ArtifactSearchResult(artifactInfos, artifactInfos.size()), repositoryDescriptor));
+            // the interrupt status is restored (and cleared for resuming the scan)
+            assertThat(Thread.interrupted(), equalTo(true));
+        } finally {
+            killer.join();
+            // the artifacts processed after the checkpoint are lost
+            if (store.hasActiveTransaction()) {
+                store.rollbackTransaction();
+            }
+        }
+        assertThat(countSyntheticArtifacts(), equalTo((long) CHECKPOINT));
+
+        BlockingArtifactProvider resumedProvider = new BlockingArtifactProvider(repository, null);
+        store.beginTransaction();
+        try {
+            new ArtifactSearchResultScanner(getScanner(), resumedProvider, new ArtifactFilter(null, null), options).scan(
+                new ArtifactSearchResult(artifactInfos, artifactInfos.size()), repositoryDescriptor);
+            store.commitTransaction();
+        } finally {
+            if (store.hasActiveTransaction()) {
+                store.rollbackTransaction();
+            }
+        }
+
+        // exactly the committed artifacts have been skipped
+        assertThat(resumedProvider.requestedModels, equalTo(artifactInfos.subList(CHECKPOINT, artifactInfos.size())
+            .stream()
+            .map(ArtifactSearchResultScannerIT::getGAV)
+            .collect(toSet())));
+        assertThat(countSyntheticArtifacts(), equalTo((long) artifactInfos.size()));
+        assertThat(new File(repository.getWorkDirectory(), ".scan-checkpoint").exists(), equalTo(false));
+    }
+
+    private long countSyntheticArtifacts() {
+        store.beginTransaction();
+        Long artifacts = store.executeQuery("MATCH (a:Maven:Artifact:Jar) WHERE a.group STARTS WITH 'org.jqassistant.synthetic' " //
+                + "RETURN count(DISTINCT a.fqn) AS artifacts")
+            .getSingleResult()
+            .get("artifacts", Long.class);
+        store.commitTransaction();
+        return artifacts;
+    }
+
+    /**
+     * Determines if the given thread is waiting for the next result of the artifact task.
+     */
+    private static boolean isWaitingForResult(Thread thread) {
+        return thread.getState() == Thread.State.WAITING && Arrays.stream(thread.getStackTrace())
+            .anyMatch(element -> element.getClassName()
+                .equals(LinkedBlockingDeque.class.getName()) && element.getMethodName()
+                .equals("take"));
+    }
+
+    private static String getGAV(ArtifactInfo artifactInfo) {
+        return artifactInfo.getGroupId() + ":" + artifactInfo.getArtifactId() + ":" + artifactInfo.getVersion();
+    }
+
+    /**
+     * Records the requested models and blocks the request for a model until the requesting thread is interrupted.
+     */
+    private static class BlockingArtifactProvider implements ArtifactProvider {
+
+        private final ArtifactProvider delegate;
+
+        private final String blockedModel;
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private final Set<String> requestedModels = ConcurrentHashMap.newKeySet();
+
+        private BlockingArtifactProvider(ArtifactProvider delegate, String blockedModel) {
+            this.delegate = delegate;
+            this.blockedModel = blockedModel;
+        }
+
+        @Override
+        public ArtifactResult getArtifact(Artifact artifact) throws ArtifactResolutionException {
+            String gav = artifact.getGroupId() + ":" + artifact.getArtifactId() + ":" + artifact.getVersion();
+            if (PACKAGING_POM.equals(artifact.getExtension())) {
+                requestedModels.add(gav);
+                if (gav.equals(blockedModel)) {
+                    blocked.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread()
+                            .interrupt();
+                        throw new ArtifactResolutionException(singletonList(new ArtifactResult(new ArtifactRequest(artifact, null, null))));
+                    }
+                }
+            }
+            return delegate.getArtifact(artifact);
+        }
+
+        @Override
+        public File getRepositoryRoot() {
+            return delegate.getRepositoryRoot();
+        }
+
+        @Override
+        public File getWorkDirectory() {
+            return delegate.getWorkDirectory();
+        }
+    }
 }
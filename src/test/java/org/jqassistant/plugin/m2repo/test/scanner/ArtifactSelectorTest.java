@@ -0,0 +1,43 @@
+package org.jqassistant.plugin.m2repo.test.scanner;
+
+import org.jqassistant.plugin.m2repo.impl.scanner.ArtifactSelector;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ArtifactSelectorTest {
+
+    @Test
+    void maxSize() {
+        ArtifactSelector artifactSelector = new ArtifactSelector(1000, null, null);
+        assertThat(artifactSelector.select(null, "jar", 1000), equalTo(true));
+        assertThat(artifactSelector.select(null, "jar", 1001), equalTo(false));
+        assertThat(artifactSelector.select(null, "jar", -1), equalTo(true));
+    }
+
+    @Test
+    void extensions() {
+        ArtifactSelector artifactSelector = new ArtifactSelector(0, "jar, war", null);
+        assertThat(artifactSelector.select(null, "jar", 1000), equalTo(true));
+        assertThat(artifactSelector.select(null, "war", 1000), equalTo(true));
+        assertThat(artifactSelector.select(null, "zip", 1000), equalTo(false));
+    }
+
+    @Test
+    void excludedClassifiers() {
+        ArtifactSelector artifactSelector = new ArtifactSelector(0, null, "sources,javadoc");
+        assertThat(artifactSelector.select(null, "jar", 1000), equalTo(true));
+        assertThat(artifactSelector.select("tests", "jar", 1000), equalTo(true));
+        assertThat(artifactSelector.select("sources", "jar", 1000), equalTo(false));
+        assertThat(artifactSelector.select("javadoc", "jar", 1000), equalTo(false));
+    }
+
+    @Test
+    void noSelection() {
+        ArtifactSelector artifactSelector = new ArtifactSelector(0, null, null);
+        assertThat(artifactSelector.select(null, "zip", Long.MAX_VALUE), equalTo(true));
+        assertThat(artifactSelector.select("sources", "jar", 1000), equalTo(true));
+    }
+
+}
@@ -0,0 +1,106 @@
+package org.jqassistant.plugin.m2repo.test.scanner;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Scans a {@link SyntheticRepository} served by the local HTTP server and reports the throughput, the peak heap usage and the size of the
+ * store.
+ * <p>
+ * The size of the repository is controlled by the system properties <code>m2repo.load.groups</code>,
+ * <code>m2repo.load.artifactsPerGroup</code>, <code>m2repo.load.versionsPerArtifact</code>, <code>m2repo.load.parentDepth</code> and
+ * <code>m2repo.load.dependencyFanOut</code>, the defaults result in 100.000 artifacts.
+ */
+class MavenRepositoryLoadMT extends AbstractMavenRepositoryIT {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MavenRepositoryLoadMT.class);
+
+    private static final File REPOSITORY_DIRECTORY = new File("target/synthetic-repository");
+
+    @Override
+    protected Map<String, Object> getScannerProperties() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("m2repo.directory", localRepositoryDirectory.getAbsolutePath());
+        properties.put("m2repo.fetch.threads", System.getProperty("m2repo.load.fetchThreads", "4"));
+        return properties;
+    }
+
+    @Test
+    void scan() throws IOException, URISyntaxException {
+        SyntheticRepository syntheticRepository = new SyntheticRepository().groups(Integer.getInteger("m2repo.load.groups", 100))
+            .artifactsPerGroup(Integer.getInteger("m2repo.load.artifactsPerGroup", 50))
+            .versionsPerArtifact(Integer.getInteger("m2repo.load.versionsPerArtifact", 10))
+            .classifiers("sources")
+            .parentDepth(Integer.getInteger("m2repo.load.parentDepth", 3))
+            .dependencyFanOut(Integer.getInteger("m2repo.load.dependencyFanOut", 5));
+        StopWatch generation = StopWatch.createStarted();
+        syntheticRepository.generate(REPOSITORY_DIRECTORY);
+        LOGGER.info("Generated repository with {} index entries in {}.", syntheticRepository.getIndexEntries(),
+            Duration.ofMillis(generation.getTime()));
+
+        resetPeakHeapUsage();
+        StopWatch scan = StopWatch.createStarted();
+        try {
+            startServer(REPOSITORY_DIRECTORY);
+            store.beginTransaction();
+            getScanner().scan(new URI(TEST_REPOSITORY_URL), TEST_REPOSITORY_URL, MavenScope.REPOSITORY);
+            store.commitTransaction();
+        } finally {
+            stopServer();
+        }
+        scan.stop();
+
+        store.beginTransaction();
+        long artifacts = count("MATCH (a:Maven:Artifact) RETURN count(a) AS count");
+        long nodes = count("MATCH (n) RETURN count(n) AS count");
+        long relationships = count("MATCH ()-[r]->() RETURN count(r) AS count");
+        store.commitTransaction();
+        LOGGER.info("Scanned {} artifacts in {} ({} artifacts/s), peak heap usage: {} MiB, store size: {} nodes, {} relationships.", artifacts,
+            Duration.ofMillis(scan.getTime()), String.format("%.1f", artifacts * 1000d / Math.max(1, scan.getTime())),
+            getPeakHeapUsage() / (1024 * 1024), nodes, relationships);
+        assertThat(artifacts, greaterThan(0L));
+    }
+
+    private long count(String query) {
+        return store.executeQuery(query)
+            .getSingleResult()
+            .get("count", Long.class);
+    }
+
+    private static void resetPeakHeapUsage() {
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() == MemoryType.HEAP) {
+                memoryPool.resetPeakUsage();
+            }
+        }
+    }
+
+    private static long getPeakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean memoryPool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (memoryPool.getType() == MemoryType.HEAP) {
+                peak += memoryPool.getPeakUsage()
+                    .getUsed();
+            }
+        }
+        return peak;
+    }
+}
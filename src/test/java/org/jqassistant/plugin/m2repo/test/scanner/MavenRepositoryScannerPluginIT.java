@@ -4,14 +4,19 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 
 import com.buschmais.jqassistant.plugin.maven3.api.model.MavenRepositoryDescriptor;
 import com.buschmais.jqassistant.plugin.maven3.api.scanner.MavenScope;
+import com.buschmais.xo.api.Query;
 
 import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -48,6 +53,126 @@ class MavenRepositoryScannerPluginIT extends AbstractMavenRepositoryIT {
         assertThat(new File(customDirectory, "localhost/9095").exists(), equalTo(true));
     }
 
+    @Test
+    void scanWithoutKeepingArtifacts(@TempDir File repositoryDirectory) throws IOException, URISyntaxException {
+        SyntheticRepository syntheticRepository = new SyntheticRepository().groups(4)
+            .artifactsPerGroup(5)
+            .versionsPerArtifact(2)
+            .classifiers()
+            .parentDepth(2)
+            .dependencyFanOut(1)
+            .inheritedDependency("junit", "junit", "4.13.2");
+        syntheticRepository.generate(repositoryDirectory);
+        Map<String, Object> scannerProperties = new HashMap<>();
+        scannerProperties.put("m2repo.artifacts.scan", "true");
+        scannerProperties.put("m2repo.artifacts.keep", "false");
+        scannerProperties.put("m2repo.fetch.threads", "4");
+        scannerProperties.put("m2repo.directory", localRepositoryDirectory.getAbsolutePath());
+        try {
+            startServer(repositoryDirectory);
+            getScanner(scannerProperties).scan(new URI(TEST_REPOSITORY_URL), TEST_REPOSITORY_URL, MavenScope.REPOSITORY);
+        } finally {
+            stopServer();
+        }
+
+        store.beginTransaction();
+        Long artifacts = store.executeQuery("MATCH (a:Maven:Artifact:Jar) " //
+                + "WHERE a.group STARTS WITH 'org.jqassistant.synthetic' RETURN count(a) AS artifacts")
+            .getSingleResult()
+            .get("artifacts", Long.class);
+        Long inheritingArtifacts = store.executeQuery("MATCH (a:Maven:Artifact:Jar)-[:DEPENDS_ON{scope:'test'}]->(:Maven:Artifact{group:'junit'}) " //
+                + "WHERE a.group STARTS WITH 'org.jqassistant.synthetic' RETURN count(DISTINCT a) AS artifacts")
+            .getSingleResult()
+            .get("artifacts", Long.class);
+        store.commitTransaction();
+        // parent POMs deleted while building models on other fetch threads are resolved again, i.e. all artifacts inherit the dependency
+        assertThat(artifacts, equalTo(40L));
+        assertThat(inheritingArtifacts, equalTo(40L));
+        // neither artifacts nor POMs (including parents) are left in the work directory
+        assertThat(FileUtils.listFiles(localRepositoryDirectory, new String[] { "jar", "pom" }, true), empty());
+    }
+
+    @Test
+    void scanWithLinkedDuplicates(@TempDir File repositoryDirectory) throws IOException, URISyntaxException {
+        // all generated JARs are byte-identical
+        new SyntheticRepository().groups(2)
+            .artifactsPerGroup(2)
+            .versionsPerArtifact(2)
+            .classifiers()
+            .generate(repositoryDirectory);
+        Map<String, Object> scannerProperties = new HashMap<>();
+        scannerProperties.put("m2repo.artifacts.scan", "true");
+        scannerProperties.put("m2repo.artifacts.linkDuplicates", "true");
+        scannerProperties.put("m2repo.directory", localRepositoryDirectory.getAbsolutePath());
+        try {
+            startServer(repositoryDirectory);
+            getScanner(scannerProperties).scan(new URI(TEST_REPOSITORY_URL), TEST_REPOSITORY_URL, MavenScope.REPOSITORY);
+        } finally {
+            stopServer();
+        }
+
+        store.beginTransaction();
+        List<String> fileNames = new ArrayList<>();
+        List<Long> filesPerArtifact = new ArrayList<>();
+        for (Query.Result.CompositeRowObject row : store.executeQuery("MATCH (a:Maven:Artifact:Jar) " //
+            + "WHERE a.group STARTS WITH 'org.jqassistant.synthetic' " //
+            + "OPTIONAL MATCH (a)-[:CONTAINS]->(file) " //
+            + "RETURN a.fileName AS fileName, a.name + '-' + a.version + '.jar' AS expectedFileName, count(file) AS files")) {
+            String fileName = row.get("fileName", String.class);
+            assertThat(fileName, endsWith(row.get("expectedFileName", String.class)));
+            fileNames.add(fileName);
+            filesPerArtifact.add(row.get("files", Long.class));
+        }
+        Long files = store.executeQuery("MATCH (a:Maven:Artifact:Jar)-[:CONTAINS]->(file) WHERE a.group STARTS WITH 'org.jqassistant.synthetic' " //
+                + "RETURN count(DISTINCT file) AS files")
+            .getSingleResult()
+            .get("files", Long.class);
+        store.commitTransaction();
+        assertThat(fileNames, hasSize(8));
+        assertThat(new HashSet<>(fileNames), hasSize(8));
+        // the content has been scanned once and is shared by the duplicates
+        assertThat(files, greaterThan(0L));
+        assertThat(filesPerArtifact, everyItem(equalTo(files)));
+    }
+
+    @Test
+    void scanLocalRepository() throws IOException {
+        File repositoryDirectory = new File(getClassesDirectory(MavenRepositoryScannerPluginIT.class), "maven-repository-1");
+        Map<String, Object> scannerProperties = new HashMap<>();
+        scannerProperties.put("m2repo.artifacts.scan", "true");
+        scannerProperties.put("m2repo.artifacts.keep", "false");
+        scannerProperties.put("m2repo.directory", localRepositoryDirectory.getAbsolutePath());
+        URI repositoryUri = repositoryDirectory.toURI();
+        getScanner(scannerProperties).scan(repositoryUri, repositoryUri.toString(), MavenScope.REPOSITORY);
+
+        store.beginTransaction();
+        Long countJarNodes = store.executeQuery("MATCH (n:Maven:Artifact:Jar) RETURN count(n) as nodes").getSingleResult().get("nodes", Long.class);
+        assertThat("Number of jar nodes is wrong.", countJarNodes, equalTo(40l));
+        store.commitTransaction();
+        // artifacts are read in place, i.e. neither deleted nor copied, work files are not written to the repository
+        assertThat(new File(repositoryDirectory, "com/buschmais/xo/xo.doc/0.5.0-SNAPSHOT/xo.doc-0.5.0-SNAPSHOT.jar").exists(), equalTo(true));
+        assertThat(new File(repositoryDirectory, ".index/repo-index").exists(), equalTo(false));
+        assertThat(new File(repositoryDirectory, ".scan-status.json").exists(), equalTo(false));
+        assertThat(FileUtils.listFiles(localRepositoryDirectory, new String[] { "jar" }, true), empty());
+    }
+
+    @Test
+    void scanLocalRepositoryWithoutIndex(@TempDir File repositoryDirectory) throws IOException {
+        FileUtils.copyDirectory(new File(getClassesDirectory(MavenRepositoryScannerPluginIT.class), "maven-repository-1"), repositoryDirectory,
+            file -> !file.getName().equals(".index"));
+        Map<String, Object> scannerProperties = new HashMap<>();
+        scannerProperties.put("m2repo.artifacts.scan", "true");
+        scannerProperties.put("m2repo.directory", localRepositoryDirectory.getAbsolutePath());
+        URI repositoryUri = repositoryDirectory.getAbsoluteFile().toURI();
+        getScanner(scannerProperties).scan(repositoryUri, repositoryUri.toString(), MavenScope.REPOSITORY);
+
+        store.beginTransaction();
+        Long countJarNodes = store.executeQuery("MATCH (n:Maven:Artifact:Jar) RETURN count(n) as nodes").getSingleResult().get("nodes", Long.class);
+        // all jar files of the directory are scanned, including the classified ones of the POM packaged xo.parent
+        assertThat("Number of jar nodes is wrong.", countJarNodes, equalTo(56l));
+        store.commitTransaction();
+    }
+
     private void scan(Map<String, Object> scannerProperties) throws IOException, URISyntaxException {
         try {
             startServer("1");
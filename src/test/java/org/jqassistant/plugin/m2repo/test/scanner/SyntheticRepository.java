@@ -0,0 +1,330 @@
+package org.jqassistant.plugin.m2repo.test.scanner;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.maven.index.*;
+import org.apache.maven.index.context.IndexCreator;
+import org.apache.maven.index.context.IndexingContext;
+import org.apache.maven.index.creator.MinimalArtifactInfoIndexCreator;
+import org.apache.maven.index.incremental.DefaultIncrementalHandler;
+import org.apache.maven.index.packer.DefaultIndexPacker;
+import org.apache.maven.index.packer.IndexPacker;
+import org.apache.maven.index.packer.IndexPackingRequest;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Generates a Maven repository including a matching <code>.index</code> for load tests.
+ * <p>
+ * Each group contains a hierarchy of parent POMs, each artifact of a group extends the deepest parent and depends on the preceding artifacts
+ * of the same version (fan-out). For each artifact a main JAR and JARs for the configured classifiers are created. The generated
+ * repository is deterministic, i.e. repeated generations with the same parameters lead to the same artifacts. Versions added afterwards are
+ * published as incremental index chunks.
+ */
+public class SyntheticRepository {
+
+    private static final String VERSION_PARENT = "1.0.0";
+
+    private static final String EXTENSION_JAR = "jar";
+
+    private static final String EXTENSION_POM = "pom";
+
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    private int groups = 10;
+
+    private int artifactsPerGroup = 10;
+
+    private int versionsPerArtifact = 5;
+
+    private List<String> classifiers = Collections.singletonList("sources");
+
+    private int parentDepth = 2;
+
+    private int dependencyFanOut = 3;
+
+    private long lastModified = LAST_MODIFIED;
+
+    private String[] inheritedDependency;
+
+    private int indexEntries;
+
+    /**
+     * The directory of the Lucene index of the generated repository.
+     */
+    private File indexDirectory;
+
+    public SyntheticRepository groups(int groups) {
+        this.groups = groups;
+        return this;
+    }
+
+    public SyntheticRepository artifactsPerGroup(int artifactsPerGroup) {
+        this.artifactsPerGroup = artifactsPerGroup;
+        return this;
+    }
+
+    public SyntheticRepository versionsPerArtifact(int versionsPerArtifact) {
+        this.versionsPerArtifact = versionsPerArtifact;
+        return this;
+    }
+
+    public SyntheticRepository classifiers(String... classifiers) {
+        this.classifiers = Arrays.asList(classifiers);
+        return this;
+    }
+
+    public SyntheticRepository parentDepth(int parentDepth) {
+        this.parentDepth = parentDepth;
+        return this;
+    }
+
+    public SyntheticRepository dependencyFanOut(int dependencyFanOut) {
+        this.dependencyFanOut = dependencyFanOut;
+        return this;
+    }
+
+    public SyntheticRepository lastModified(long lastModified) {
+        this.lastModified = lastModified;
+        return this;
+    }
+
+    /**
+     * Declares a dependency with scope <code>test</code> in the root parent POM of each group, i.e. it is inherited by all artifacts.
+     *
+     * @param groupId
+     *     The groupId of the dependency.
+     * @param artifactId
+     *     The artifactId of the dependency.
+     * @param version
+     *     The version of the dependency.
+     * @return The {@link SyntheticRepository}.
+     */
+    public SyntheticRepository inheritedDependency(String groupId, String artifactId, String version) {
+        this.inheritedDependency = new String[] { groupId, artifactId, version };
+        return this;
+    }
+
+    /**
+     * Return the number of generated index entries, i.e. artifacts and parent POMs.
+     *
+     * @return The number of index entries.
+     */
+    public int getIndexEntries() {
+        return indexEntries;
+    }
+
+    /**
+     * Generates the repository into the given directory, existing content is deleted.
+     *
+     * @param repositoryDirectory
+     *     The repository directory.
+     * @throws IOException
+     *     If the repository cannot be written.
+     */
+    public void generate(File repositoryDirectory) throws IOException {
+        FileUtils.deleteDirectory(repositoryDirectory);
+        repositoryDirectory.mkdirs();
+        if (indexDirectory != null) {
+            FileUtils.deleteDirectory(indexDirectory);
+        }
+        // the index is kept for publishing incremental updates
+        indexDirectory = Files.createTempDirectory("synthetic-index")
+            .toFile();
+        FileUtils.forceDeleteOnExit(indexDirectory);
+        indexEntries = 0;
+        index(repositoryDirectory, 0);
+    }
+
+    /**
+     * Adds versions to all artifacts of a repository generated before by {@link #generate(File)} and publishes the new index entries as
+     * incremental index chunk.
+     *
+     * @param repositoryDirectory
+     *     The repository directory.
+     * @param versions
+     *     The number of versions to add.
+     * @throws IOException
+     *     If the repository cannot be written.
+     */
+    public void addVersions(File repositoryDirectory, int versions) throws IOException {
+        if (indexDirectory == null) {
+            throw new IllegalStateException("The repository has not been generated.");
+        }
+        int firstVersion = versionsPerArtifact;
+        versionsPerArtifact += versions;
+        index(repositoryDirectory, firstVersion);
+    }
+
+    /**
+     * Writes the parent POMs (for the first version only) and the versions of all artifacts starting with the given version, adds them to
+     * the index and packs it.
+     */
+    private void index(File repositoryDirectory, int firstVersion) throws IOException {
+        byte[] jar = createJar();
+        Indexer indexer = new DefaultIndexer(new DefaultSearchEngine(), new DefaultIndexerEngine(), new DefaultQueryCreator());
+        List<IndexCreator> indexCreators = singletonList(new MinimalArtifactInfoIndexCreator());
+        IndexingContext indexingContext = indexer.createIndexingContext("synthetic", "synthetic", repositoryDirectory, indexDirectory, null, null,
+            true, true, indexCreators);
+        try {
+            for (int g = 0; g < groups; g++) {
+                String groupId = "org.jqassistant.synthetic.group" + g;
+                List<ArtifactContext> artifactContexts = new ArrayList<>();
+                String parentArtifactId = null;
+                for (int depth = 0; depth < parentDepth; depth++) {
+                    String artifactId = "parent" + depth;
+                    if (firstVersion == 0) {
+                        File pom = write(repositoryDirectory, groupId, artifactId, VERSION_PARENT, null, EXTENSION_POM,
+                            pom(groupId, artifactId, VERSION_PARENT, EXTENSION_POM, parentArtifactId, Collections.emptyList(),
+                                depth == 0 ? inheritedDependency : null).getBytes(StandardCharsets.UTF_8));
+                        artifactContexts.add(artifactContext(groupId, artifactId, VERSION_PARENT, null, EXTENSION_POM, EXTENSION_POM, pom, pom));
+                    }
+                    parentArtifactId = artifactId;
+                }
+                for (int a = 0; a < artifactsPerGroup; a++) {
+                    String artifactId = "artifact" + a;
+                    List<String> dependencies = new ArrayList<>();
+                    for (int d = Math.max(0, a - dependencyFanOut); d < a; d++) {
+                        dependencies.add("artifact" + d);
+                    }
+                    for (int v = firstVersion; v < versionsPerArtifact; v++) {
+                        String version = "1." + v + ".0";
+                        File pom = write(repositoryDirectory, groupId, artifactId, version, null, EXTENSION_POM,
+                            pom(groupId, artifactId, version, EXTENSION_JAR, parentArtifactId, dependencies, null).getBytes(StandardCharsets.UTF_8));
+                        File mainArtifact = write(repositoryDirectory, groupId, artifactId, version, null, EXTENSION_JAR, jar);
+                        artifactContexts.add(artifactContext(groupId, artifactId, version, null, EXTENSION_JAR, EXTENSION_JAR, pom, mainArtifact));
+                        for (String classifier : classifiers) {
+                            File classifiedArtifact = write(repositoryDirectory, groupId, artifactId, version, classifier, EXTENSION_JAR, jar);
+                            artifactContexts.add(
+                                artifactContext(groupId, artifactId, version, classifier, EXTENSION_JAR, EXTENSION_JAR, pom, classifiedArtifact));
+                        }
+                    }
+                }
+                indexer.addArtifactsToContext(artifactContexts, indexingContext);
+                indexEntries += artifactContexts.size();
+            }
+            indexingContext.updateTimestamp(true);
+            pack(indexingContext, new File(repositoryDirectory, ".index"));
+        } finally {
+            indexer.closeIndexingContext(indexingContext, false);
+        }
+    }
+
+    private ArtifactContext artifactContext(String groupId, String artifactId, String version, String classifier, String extension,
+        String packaging, File pom, File artifact) throws IOException {
+        ArtifactInfo artifactInfo = new ArtifactInfo("synthetic", groupId, artifactId, version, classifier, extension);
+        artifactInfo.setPackaging(packaging);
+        artifactInfo.setLastModified(lastModified);
+        artifactInfo.setSize(artifact.length());
+        try (InputStream inputStream = new FileInputStream(artifact)) {
+            artifactInfo.setSha1(DigestUtils.sha1Hex(inputStream));
+        }
+        return new ArtifactContext(pom, artifact, null, artifactInfo, artifactInfo.calculateGav());
+    }
+
+    private static void pack(IndexingContext indexingContext, File targetDirectory) throws IOException {
+        IndexPacker indexPacker = new DefaultIndexPacker(new DefaultIncrementalHandler());
+        IndexSearcher indexSearcher = indexingContext.acquireIndexSearcher();
+        try {
+            IndexReader indexReader = indexSearcher.getIndexReader();
+            IndexPackingRequest packingRequest = new IndexPackingRequest(indexingContext, indexReader, targetDirectory);
+            // the first packed index is complete, each further one is published as incremental chunk
+            packingRequest.setCreateIncrementalChunks(true);
+            indexPacker.packIndex(packingRequest);
+        } finally {
+            indexingContext.releaseIndexSearcher(indexSearcher);
+        }
+    }
+
+    private static File write(File repositoryDirectory, String groupId, String artifactId, String version, String classifier, String extension,
+        byte[] content) throws IOException {
+        File directory = new File(repositoryDirectory, groupId.replace('.', '/') + "/" + artifactId + "/" + version);
+        directory.mkdirs();
+        File file = new File(directory, artifactId + "-" + version + (classifier != null ? "-" + classifier : "") + "." + extension);
+        Files.write(file.toPath(), content);
+        return file;
+    }
+
+    private static String pom(String groupId, String artifactId, String version, String packaging, String parentArtifactId,
+        List<String> dependencies, String[] testDependency) {
+        StringBuilder pom = new StringBuilder();
+        pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+            .append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n")
+            .append("    <modelVersion>4.0.0</modelVersion>\n");
+        if (parentArtifactId != null) {
+            pom.append("    <parent>\n")
+                .append("        <groupId>")
+                .append(groupId)
+                .append("</groupId>\n")
+                .append("        <artifactId>")
+                .append(parentArtifactId)
+                .append("</artifactId>\n")
+                .append("        <version>" + VERSION_PARENT + "</version>\n")
+                .append("    </parent>\n");
+        }
+        pom.append("    <groupId>")
+            .append(groupId)
+            .append("</groupId>\n")
+            .append("    <artifactId>")
+            .append(artifactId)
+            .append("</artifactId>\n")
+            .append("    <version>")
+            .append(version)
+            .append("</version>\n")
+            .append("    <packaging>")
+            .append(packaging)
+            .append("</packaging>\n");
+        if (!dependencies.isEmpty() || testDependency != null) {
+            pom.append("    <dependencies>\n");
+            for (String dependency : dependencies) {
+                pom.append("        <dependency>\n")
+                    .append("            <groupId>${project.groupId}</groupId>\n")
+                    .append("            <artifactId>")
+                    .append(dependency)
+                    .append("</artifactId>\n")
+                    .append("            <version>${project.version}</version>\n")
+                    .append("        </dependency>\n");
+            }
+            if (testDependency != null) {
+                pom.append("        <dependency>\n")
+                    .append("            <groupId>")
+                    .append(testDependency[0])
+                    .append("</groupId>\n")
+                    .append("            <artifactId>")
+                    .append(testDependency[1])
+                    .append("</artifactId>\n")
+                    .append("            <version>")
+                    .append(testDependency[2])
+                    .append("</version>\n")
+                    .append("            <scope>test</scope>\n")
+                    .append("        </dependency>\n");
+            }
+            pom.append("    </dependencies>\n");
+        }
+        return pom.append("</project>\n")
+            .toString();
+    }
+
+    private static byte[] createJar() throws IOException {
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes()
+            .putValue("Manifest-Version", "1.0");
+        ByteArrayOutputStream jar = new ByteArrayOutputStream();
+        try (JarOutputStream jarOutputStream = new JarOutputStream(jar, manifest)) {
+            jarOutputStream.flush();
+        }
+        return jar.toByteArray();
+    }
+}